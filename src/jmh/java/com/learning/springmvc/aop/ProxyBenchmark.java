@@ -0,0 +1,102 @@
+package com.learning.springmvc.aop;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 05:00
+ * @description: 代理对方法调用增加的开销，对比直接调用、代理类中未被拦截的方法以及经过1个和3个拦截器的方法
+ * 运行方式：mvn -Pjmh test-compile exec:exec -Djmh.args="ProxyBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyBenchmark {
+
+    private Calculator direct;
+
+    private Calculator oneInterceptor;
+
+    private Calculator threeInterceptors;
+
+    private int value = 7;
+
+    @Setup
+    public void setup() throws Exception {
+        direct = new Calculator();
+        oneInterceptor = (Calculator) new ProxyFactory(Collections.singletonList(new PassThrough()))
+                .getProxyClass(Calculator.class).newInstance();
+        threeInterceptors = (Calculator) new ProxyFactory(Lists.newArrayList(new PassThrough(), new PassThrough(), new PassThrough()))
+                .getProxyClass(Calculator.class).newInstance();
+    }
+
+    @Benchmark
+    public int direct() {
+        return direct.add(value, 1);
+    }
+
+    /**
+     * 代理类中没有拦截器匹配的方法
+     *
+     * @return
+     */
+    @Benchmark
+    public int unadvised() {
+        return oneInterceptor.subtract(value, 1);
+    }
+
+    @Benchmark
+    public int oneInterceptor() {
+        return oneInterceptor.add(value, 1);
+    }
+
+    @Benchmark
+    public int threeInterceptors() {
+        return threeInterceptors.add(value, 1);
+    }
+
+    public static class Calculator {
+
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        public int subtract(int a, int b) {
+            return a - b;
+        }
+    }
+
+    /**
+     * 只拦截add方法，直接执行调用链的下一个节点
+     */
+    public static class PassThrough implements MethodInterceptor {
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return "add".equals(method.getName());
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            return invocation.proceed();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.learning.springmvc.context;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Maps;
+import com.learning.springmvc.annotation.DevAutowired;
+import com.learning.springmvc.annotation.DevScope;
+import com.learning.springmvc.annotation.DevService;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 04:30
+ * @description: prototype bean的创建开销，对比执行缓存的注入计划与改造前每次查找属性再反射赋值的方式
+ * 运行方式：mvn -Pjmh test-compile exec:exec -Djmh.args="BeanFactoryBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanFactoryBenchmark {
+
+    private ForkJoinPool pool;
+
+    private BeanFactory beanFactory;
+
+    private ComponentDefinition requestDefinition;
+
+    /**
+     * 改造前的ioc容器
+     */
+    private Map<String, Object> ioc;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(1);
+        beanFactory = new BeanFactory(getClass().getClassLoader());
+        ioc = Maps.newHashMap();
+        for (Class<?> type : new Class<?>[]{OrderRepository.class, UserRepository.class, AuditLog.class}) {
+            ComponentDefinition definition = ComponentDefinition.fromClass(type);
+            beanFactory.register(definition);
+            ioc.put(type.getName(), beanFactory.getBean(type.getName()));
+        }
+        requestDefinition = ComponentDefinition.fromClass(RequestHandler.class);
+        beanFactory.register(requestDefinition);
+        beanFactory.preInstantiateSingletons(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object plan() {
+        return beanFactory.getBean("requestHandler");
+    }
+
+    /**
+     * 改造前doAutoWired的方式，每次创建都查找属性、设置可访问并反射赋值
+     *
+     * @return
+     * @throws Exception
+     */
+    @Benchmark
+    public Object reflective() throws Exception {
+        Object bean = RequestHandler.class.newInstance();
+        Class<?> clazz = bean.getClass();
+        for (InjectionPoint injectionPoint : requestDefinition.getInjectionPoints()) {
+            Field field = clazz.getDeclaredField(injectionPoint.getFieldName());
+            field.setAccessible(true);
+            field.set(bean, ioc.get(injectionPoint.getBeanName()));
+        }
+        return bean;
+    }
+
+    @DevService
+    public static class OrderRepository {
+    }
+
+    @DevService
+    public static class UserRepository {
+    }
+
+    @DevService
+    public static class AuditLog {
+    }
+
+    @DevService
+    @DevScope(DevScope.PROTOTYPE)
+    public static class RequestHandler {
+
+        @DevAutowired
+        private OrderRepository orderRepository;
+
+        @DevAutowired
+        private UserRepository userRepository;
+
+        @DevAutowired
+        private AuditLog auditLog;
+    }
+}
@@ -0,0 +1,103 @@
+package com.learning.springmvc.convert;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 22:40
+ * @description: 预编译的参数转换器在常见参数类型上的开销
+ * 运行方式：mvn -Pjmh test-compile exec:exec -Djmh.args="ConverterBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private ParameterConverter integerConverter;
+
+    private ParameterConverter intArrayConverter;
+
+    private ParameterConverter longListConverter;
+
+    private ParameterConverter enumConverter;
+
+    private ParameterConverter dateConverter;
+
+    private final String[] integerValue = {"12345"};
+
+    private final String[] multiValues = {"1", "22", "333", "4444"};
+
+    private final String[] commaValue = {"1,22,333,4444"};
+
+    private final String[] enumValue = {"SECONDS"};
+
+    private final String[] dateValue = {"2026-10-18"};
+
+    @Setup
+    public void setup() throws Exception {
+        ConverterRegistry registry = new ConverterRegistry();
+        Method method = Parameters.class.getMethod("all", Integer.class, int[].class, List.class, TimeUnit.class, LocalDate.class);
+        integerConverter = compile(registry, method, 0);
+        intArrayConverter = compile(registry, method, 1);
+        longListConverter = compile(registry, method, 2);
+        enumConverter = compile(registry, method, 3);
+        dateConverter = compile(registry, method, 4);
+    }
+
+    private static ParameterConverter compile(ConverterRegistry registry, Method method, int index) {
+        return registry.compile(method.getParameterTypes()[index], method.getGenericParameterTypes()[index], "p" + index);
+    }
+
+    @Benchmark
+    public Object integer() {
+        return integerConverter.convert(integerValue);
+    }
+
+    @Benchmark
+    public Object intArray() {
+        return intArrayConverter.convert(multiValues);
+    }
+
+    @Benchmark
+    public Object longList() {
+        return longListConverter.convert(multiValues);
+    }
+
+    @Benchmark
+    public Object longListCommaSeparated() {
+        return longListConverter.convert(commaValue);
+    }
+
+    @Benchmark
+    public Object enumValue() {
+        return enumConverter.convert(enumValue);
+    }
+
+    @Benchmark
+    public Object localDate() {
+        return dateConverter.convert(dateValue);
+    }
+
+    public static class Parameters {
+
+        public void all(Integer integer, int[] ints, List<Long> longs, TimeUnit unit, LocalDate date) {
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.learning.springmvc.annotation.DevRequestParam;
+import com.learning.springmvc.convert.ConverterRegistry;
+import com.learning.springmvc.json.JsonMapper;
+import com.learning.springmvc.mock.MockHttpServletRequest;
+import com.learning.springmvc.mock.MockHttpServletResponse;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 22:30
+ * @description: 参数绑定的开销，对比初始化时确定的解析器数组与v1中每次请求读取注解的buildParams
+ * 运行方式：mvn -Pjmh test-compile exec:exec -Djmh.args="ArgumentBindingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgumentBindingBenchmark {
+
+    private HttpServletRequest request;
+
+    private HttpServletResponse response;
+
+    private Method stringMethod;
+
+    private HandlerMapping stringMapping;
+
+    private HandlerMapping typedMapping;
+
+    @Setup
+    public void setup() throws Exception {
+        request = MockHttpServletRequest.of("GET", "/bench?name=dev&city=shanghai&page=3&ids=1&ids=2&ids=3");
+        response = new MockHttpServletResponse();
+        ConverterRegistry converterRegistry = new ConverterRegistry();
+        JsonMapper jsonMapper = new JsonMapper(converterRegistry);
+        BenchmarkController controller = new BenchmarkController();
+        stringMethod = BenchmarkController.class.getMethod("strings", HttpServletRequest.class, String.class, String.class);
+        stringMapping = new HandlerMapping("/strings", controller, stringMethod, converterRegistry, jsonMapper);
+        typedMapping = new HandlerMapping("/typed", controller,
+                BenchmarkController.class.getMethod("typed", String.class, int.class, List.class), converterRegistry, jsonMapper);
+    }
+
+    @Benchmark
+    public Object[] resolverStrings() throws Exception {
+        return stringMapping.resolveArguments(request, response);
+    }
+
+    @Benchmark
+    public Object[] resolverTyped() throws Exception {
+        return typedMapping.resolveArguments(request, response);
+    }
+
+    /**
+     * v1的buildParams，每次请求都重新读取参数类型和参数注解
+     *
+     * @return
+     */
+    @Benchmark
+    public Object[] v1BuildParams() {
+        Method method = stringMethod;
+        request.getParameterMap();
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Object[] paramValues = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> parameterType = parameterTypes[i];
+            if (parameterType == HttpServletRequest.class) {
+                paramValues[i] = request;
+            } else if (parameterType == HttpServletResponse.class) {
+                paramValues[i] = response;
+            } else if (parameterType == String.class) {
+                Annotation[][] annotations = method.getParameterAnnotations();
+                for (int index = 0; index < annotations.length; index++) {
+                    for (Annotation item : annotations[i]) {
+                        if (item instanceof DevRequestParam) {
+                            String paramName = ((DevRequestParam) item).value();
+                            if (StringUtils.isNotEmpty(paramName)) {
+                                paramValues[i] = request.getParameter(paramName);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return paramValues;
+    }
+
+    public static class BenchmarkController {
+
+        public String strings(HttpServletRequest request, @DevRequestParam("name") String name, @DevRequestParam("city") String city) {
+            return name + city;
+        }
+
+        public String typed(@DevRequestParam("name") String name, @DevRequestParam("page") int page, @DevRequestParam("ids") List<Long> ids) {
+            return name + page + ids;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.learning.springmvc.mock.MockHttpServletRequest;
+import com.learning.springmvc.mock.MockHttpServletResponse;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 22:50
+ * @description: 通过service()走完整的请求分发，包括路由、参数绑定、转换、方法调用和写响应
+ * 使用jmh-dispatch.properties扫描基准测试专用的Controller，请求和响应都是内存实现，不需要容器
+ * 运行方式：mvn -Pjmh test-compile exec:exec -Djmh.args="DispatchBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    private DevDispatcherServlet servlet;
+
+    private MockHttpServletResponse response;
+
+    private MockHttpServletRequest echo;
+
+    private MockHttpServletRequest sum;
+
+    private MockHttpServletRequest item;
+
+    private MockHttpServletRequest notFound;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        servlet = new DevDispatcherServlet();
+        servlet.init((ServletConfig) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ServletConfig.class},
+                (proxy, method, args) -> "getInitParameter".equals(method.getName()) && "contextConfigLocation".equals(args[0])
+                        ? "jmh-dispatch.properties" : null));
+        response = new MockHttpServletResponse();
+        echo = MockHttpServletRequest.of("GET", "/bench/echo?name=dev");
+        sum = MockHttpServletRequest.of("GET", "/bench/sum?a=17&b=25");
+        item = MockHttpServletRequest.of("GET", "/bench/item42?id=42");
+        notFound = MockHttpServletRequest.of("GET", "/bench/missing");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        servlet.destroy();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse literalRoute() throws Exception {
+        return dispatch(echo);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse typedParams() throws Exception {
+        return dispatch(sum);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse patternRoute() throws Exception {
+        return dispatch(item);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse unmatched() throws Exception {
+        return dispatch(notFound);
+    }
+
+    private MockHttpServletResponse dispatch(MockHttpServletRequest request) throws Exception {
+        response.reset();
+        servlet.service(request, response);
+        return response;
+    }
+}
@@ -0,0 +1,67 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 11:30
+ * @description: 对比反射调用与预编译调用器的开销
+ * 运行方式：mvn -Pjmh test-compile exec:exec -Djmh.args="HandlerInvokerBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerInvokerBenchmark {
+
+    private Object controller;
+    private Method method;
+    private HandlerInvoker fastClassInvoker;
+    private HandlerInvoker methodHandleInvoker;
+    private Object[] args;
+
+    @Setup
+    public void setup() throws Exception {
+        controller = new BenchmarkController();
+        method = BenchmarkController.class.getMethod("sub", String.class, Integer.class, Integer.class);
+        fastClassInvoker = HandlerInvoker.fastClass(controller, method);
+        methodHandleInvoker = HandlerInvoker.methodHandle(controller, method);
+        args = new Object[]{"sub", 7, 3};
+    }
+
+    @Benchmark
+    public Object reflect() throws Exception {
+        return method.invoke(controller, args);
+    }
+
+    @Benchmark
+    public Object fastClass() throws Exception {
+        return fastClassInvoker.invoke(args);
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Exception {
+        return methodHandleInvoker.invoke(args);
+    }
+
+    public static class BenchmarkController {
+
+        public String sub(String name, Integer a, Integer b) {
+            return name + (a - b);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 22:20
+ * @description: 不同路由数量下的路由查找，对比RouteIndex与逐个正则匹配的列表
+ * 一半路由为普通url，一半为正则url，每次查找轮流使用预先随机生成的url，避免只测到同一个key
+ * 另外注册一个url模板，对比按段匹配加按下标提取变量与用捕获组正则提取变量的开销
+ * 运行方式：mvn -Pjmh test-compile exec:exec -Djmh.args="RouteIndexBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteIndexBenchmark {
+
+    private static final int URL_COUNT = 1024;
+
+    @Param({"10", "100", "10000"})
+    private int routes;
+
+    private RouteIndex<Integer> routeIndex;
+
+    private RouteIndex<Integer> uncachedRouteIndex;
+
+    /**
+     * 改造前的做法，按注册顺序逐个正则匹配
+     */
+    private List<Pattern> patternList;
+
+    private String[] literalUrls;
+
+    private String[] patternUrls;
+
+    private String[] templateUrls;
+
+    private PathTemplate pathTemplate;
+
+    /**
+     * 与url模板等价的捕获组正则
+     */
+    private Pattern templatePattern;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        routeIndex = new RouteIndex<>(1024, false);
+        uncachedRouteIndex = new RouteIndex<>(0, false);
+        patternList = Lists.newArrayListWithCapacity(routes);
+        for (int i = 0; i < routes; i++) {
+            String url = i % 2 == 0 ? "/api/resource" + i + "/detail" : "/api/resource" + i + "/item.*";
+            routeIndex.register(url, i);
+            uncachedRouteIndex.register(url, i);
+            patternList.add(Pattern.compile(url));
+        }
+
+        String template = "/api/users/{id}/orders/{orderId}";
+        routeIndex.register(template, -1);
+        uncachedRouteIndex.register(template, -1);
+        pathTemplate = PathTemplate.compile(template);
+        templatePattern = Pattern.compile("/api/users/([^/]+)/orders/([^/]+)");
+
+        Random random = new Random(42);
+        literalUrls = new String[URL_COUNT];
+        patternUrls = new String[URL_COUNT];
+        templateUrls = new String[URL_COUNT];
+        int half = Math.max(1, routes / 2);
+        for (int i = 0; i < URL_COUNT; i++) {
+            literalUrls[i] = "/api/resource" + (random.nextInt(half) * 2) + "/detail";
+            // 正则url只使用少量不同的后缀，使缓存能够命中
+            patternUrls[i] = "/api/resource" + (random.nextInt(half) * 2 + 1) + "/item" + random.nextInt(4);
+            templateUrls[i] = "/api/users/" + random.nextInt(100000) + "/orders/" + random.nextInt(100000);
+        }
+    }
+
+    private int nextIndex() {
+        return next++ & (URL_COUNT - 1);
+    }
+
+    @Benchmark
+    public Integer indexLiteral() {
+        return routeIndex.lookup(literalUrls[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer indexPattern() {
+        return routeIndex.lookup(patternUrls[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer indexPatternUncached() {
+        return uncachedRouteIndex.lookup(patternUrls[nextIndex()]);
+    }
+
+    /**
+     * 模板匹配不经过缓存，包含提取变量值的开销
+     *
+     * @return
+     */
+    @Benchmark
+    public String[] indexTemplate() {
+        String url = templateUrls[nextIndex()];
+        return Objects.isNull(uncachedRouteIndex.lookup(url)) ? null : pathTemplate.extract(url);
+    }
+
+    @Benchmark
+    public String[] regexTemplate() {
+        Matcher matcher = templatePattern.matcher(templateUrls[nextIndex()]);
+        return matcher.matches() ? new String[]{matcher.group(1), matcher.group(2)} : null;
+    }
+
+    @Benchmark
+    public Integer listLiteral() {
+        return scan(literalUrls[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer listPattern() {
+        return scan(patternUrls[nextIndex()]);
+    }
+
+    private Integer scan(String url) {
+        for (int i = 0; i < patternList.size(); i++) {
+            if (patternList.get(i).matcher(url).matches()) {
+                return i;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.learning.springmvc.jmh.controller;
+
+import com.learning.springmvc.annotation.DevController;
+import com.learning.springmvc.annotation.DevRequestMapping;
+import com.learning.springmvc.annotation.DevRequestParam;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 22:50
+ * @description: 完整分发基准测试使用的Controller，不输出日志，避免System.out影响结果
+ */
+@DevController
+@DevRequestMapping("/bench")
+public class BenchmarkController {
+
+    @DevRequestMapping("/echo")
+    public String echo(@DevRequestParam("name") String name) {
+        return name;
+    }
+
+    @DevRequestMapping("/sum")
+    public String sum(@DevRequestParam("a") int a, @DevRequestParam("b") int b) {
+        return String.valueOf(a + b);
+    }
+
+    @DevRequestMapping("/item.*")
+    public String item(@DevRequestParam("id") Long id) {
+        return "item:" + id;
+    }
+}
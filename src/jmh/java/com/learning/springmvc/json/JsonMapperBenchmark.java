@@ -0,0 +1,164 @@
+package com.learning.springmvc.json;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 02:00
+ * @description: 缓存属性访问器之后json序列化和请求体解析的开销
+ * 运行方式：mvn -Pjmh test-compile exec:exec -Djmh.args="JsonMapperBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonMapperBenchmark {
+
+    private JsonMapper jsonMapper;
+
+    private JsonDeserializer orderDeserializer;
+
+    private Order order;
+
+    private String orderJson;
+
+    @Setup
+    public void setup() {
+        jsonMapper = new JsonMapper();
+        order = new Order();
+        order.setId(10086L);
+        order.setCustomer("dev \"spring\" mvc");
+        order.setPaid(true);
+        order.setTags(Lists.newArrayList("new", "vip", "express"));
+        List<Item> items = Lists.newArrayList();
+        for (int i = 0; i < 5; i++) {
+            Item item = new Item();
+            item.setSku("SKU-" + i);
+            item.setQuantity(i + 1);
+            item.setPrice(9.9 * (i + 1));
+            items.add(item);
+        }
+        order.setItems(items);
+        orderJson = jsonMapper.writeValueAsString(order);
+        orderDeserializer = jsonMapper.deserializerFor(Order.class);
+    }
+
+    /**
+     * 写入线程复用的缓冲区，与ResultWriter的写出方式一致
+     *
+     * @return
+     */
+    @Benchmark
+    public int serialize() {
+        JsonOutput output = jsonMapper.localOutput();
+        jsonMapper.write(order, output);
+        return output.size();
+    }
+
+    @Benchmark
+    public Object parse() {
+        return jsonMapper.read(orderJson, orderDeserializer);
+    }
+
+    public static class Order {
+
+        private long id;
+
+        private String customer;
+
+        private boolean paid;
+
+        private List<String> tags;
+
+        private List<Item> items;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(String customer) {
+            this.customer = customer;
+        }
+
+        public boolean isPaid() {
+            return paid;
+        }
+
+        public void setPaid(boolean paid) {
+            this.paid = paid;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+
+        public void setItems(List<Item> items) {
+            this.items = items;
+        }
+    }
+
+    public static class Item {
+
+        private String sku;
+
+        private int quantity;
+
+        private double price;
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.learning.springmvc.mock;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+import com.google.common.collect.Maps;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 22:10
+ * @description: 基准测试使用的内存请求，不依赖容器
+ * 只实现分发过程中用到的方法，其他方法由底层代理抛出UnsupportedOperationException，避免静默返回错误的默认值
+ */
+public class MockHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final String method;
+
+    private final String requestUri;
+
+    private final Map<String, String[]> parameters = Maps.newLinkedHashMap();
+
+    private final Map<String, String> headers = Maps.newLinkedHashMap();
+
+    private final Map<String, Object> attributes = Maps.newHashMap();
+
+    private byte[] body = new byte[0];
+
+    public MockHttpServletRequest(String method, String requestUri) {
+        super(unsupported());
+        this.method = method;
+        this.requestUri = requestUri;
+    }
+
+    /**
+     * 按url的查询字符串构建请求，例如GET /test/add?name=x
+     *
+     * @param method
+     * @param url
+     * @return
+     */
+    public static MockHttpServletRequest of(String method, String url) {
+        int index = url.indexOf('?');
+        MockHttpServletRequest request = new MockHttpServletRequest(method, index < 0 ? url : url.substring(0, index));
+        if (index >= 0) {
+            for (String pair : url.substring(index + 1).split("&")) {
+                int split = pair.indexOf('=');
+                request.addParameter(split < 0 ? pair : pair.substring(0, split), split < 0 ? "" : pair.substring(split + 1));
+            }
+        }
+        return request;
+    }
+
+    public MockHttpServletRequest addParameter(String name, String value) {
+        String[] values = parameters.get(name);
+        if (Objects.isNull(values)) {
+            parameters.put(name, new String[]{value});
+        } else {
+            String[] merged = new String[values.length + 1];
+            System.arraycopy(values, 0, merged, 0, values.length);
+            merged[values.length] = value;
+            parameters.put(name, merged);
+        }
+        return this;
+    }
+
+    public MockHttpServletRequest header(String name, String value) {
+        headers.put(name.toLowerCase(), value);
+        return this;
+    }
+
+    public MockHttpServletRequest body(String body) {
+        this.body = body.getBytes(StandardCharsets.UTF_8);
+        return this;
+    }
+
+    private static HttpServletRequest unsupported() {
+        return (HttpServletRequest) Proxy.newProxyInstance(MockHttpServletRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException("MockHttpServletRequest." + method.getName());
+                });
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestUri;
+    }
+
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return Objects.isNull(values) ? null : values[0];
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase());
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        String value = getHeader(name);
+        return Objects.isNull(value) ? Collections.emptyEnumeration() : Collections.enumeration(Collections.singletonList(value));
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return -1L;
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream input = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return input.read();
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                return input.read(bytes, offset, length);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return input.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException("MockHttpServletRequest.setReadListener");
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+}
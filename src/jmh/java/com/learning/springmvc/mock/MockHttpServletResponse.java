@@ -0,0 +1,199 @@
+package com.learning.springmvc.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import com.google.common.collect.Maps;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 22:10
+ * @description: 基准测试使用的内存响应，输出写入可复用的缓冲区，每次调用前通过reset清空
+ */
+public class MockHttpServletResponse extends HttpServletResponseWrapper {
+
+    private final CharArrayWriter characters = new CharArrayWriter();
+
+    private final PrintWriter writer = new PrintWriter(characters);
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes.write(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("MockHttpServletResponse.setWriteListener");
+        }
+    };
+
+    private final Map<String, String> headers = Maps.newLinkedHashMap();
+
+    private int status = SC_OK;
+
+    private String contentType;
+
+    public MockHttpServletResponse() {
+        super((HttpServletResponse) Proxy.newProxyInstance(MockHttpServletResponse.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException("MockHttpServletResponse." + method.getName());
+                }));
+    }
+
+    /**
+     * 响应的文本内容，字符输出和字节输出都会包含在内
+     *
+     * @return
+     */
+    public String getContent() {
+        writer.flush();
+        return characters.toString() + new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void reset() {
+        writer.flush();
+        characters.reset();
+        bytes.reset();
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+    }
+
+    @Override
+    public void resetBuffer() {
+        writer.flush();
+        characters.reset();
+        bytes.reset();
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public void flushBuffer() {
+        writer.flush();
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public void sendError(int status, String message) {
+        this.status = status;
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        headers.put("content-length", String.valueOf(length));
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        headers.put("content-length", String.valueOf(length));
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        headers.put(name.toLowerCase(), value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        String current = headers.get(name.toLowerCase());
+        headers.put(name.toLowerCase(), Objects.isNull(current) ? value : current + ", " + value);
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        headers.put(name.toLowerCase(), String.valueOf(date));
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        headers.put(name.toLowerCase(), String.valueOf(value));
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name.toLowerCase());
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase());
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return Collections.unmodifiableSet(headers.keySet());
+    }
+}
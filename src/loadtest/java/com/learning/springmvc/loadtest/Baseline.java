@@ -0,0 +1,155 @@
+package com.learning.springmvc.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+import org.eclipse.jetty.util.ajax.JSON;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 23:30
+ * @description: 压测基线，json格式，接口 -> 指标
+ * 吞吐量低于基线或p99、p999高于基线超过允许比例时视为退化
+ * 同时记录压测环境：cpu核数、并发数以及配置文件中的拦截器，环境不一致时结果没有可比性，不做比较
+ */
+class Baseline {
+
+    /**
+     * 影响压测结果、需要与基线一致的配置项
+     */
+    private static final String[] ENVIRONMENT_PROPERTIES = {"interceptors", "handlerInterceptors"};
+
+    private final Map<String, Object> environment;
+
+    private final Map<String, Map<String, Object>> endpoints;
+
+    private Baseline(Map<String, Object> environment, Map<String, Map<String, Object>> endpoints) {
+        this.environment = environment;
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * @param results
+     * @param config  压测使用的application.properties
+     */
+    Baseline(List<LoadResult> results, Properties config) {
+        this.environment = Maps.newLinkedHashMap();
+        environment.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        for (String key : ENVIRONMENT_PROPERTIES) {
+            environment.put(key, config.getProperty(key, "").trim());
+        }
+        this.endpoints = Maps.newLinkedHashMap();
+        for (LoadResult result : results) {
+            endpoints.put(result.getEndpoint(), result.toMap());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Baseline read(File file) throws IOException {
+        Object parsed = JSON.parse(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        Map<String, Object> root = (Map<String, Object>) parsed;
+        Map<String, Object> environment = Maps.newLinkedHashMap();
+        environment.put("availableProcessors", root.get("availableProcessors"));
+        for (String key : ENVIRONMENT_PROPERTIES) {
+            environment.put(key, Objects.toString(root.get(key), ""));
+        }
+        Map<String, Map<String, Object>> endpoints = Maps.newLinkedHashMap();
+        ((Map<String, Object>) root.get("endpoints"))
+                .forEach((endpoint, metrics) -> endpoints.put(endpoint, (Map<String, Object>) metrics));
+        return new Baseline(environment, endpoints);
+    }
+
+    void write(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (Objects.nonNull(parent)) {
+            Files.createDirectories(parent.toPath());
+        }
+        Map<String, Object> root = Maps.newLinkedHashMap();
+        root.put("javaVersion", System.getProperty("java.version"));
+        root.putAll(environment);
+        root.put("endpoints", endpoints);
+        Files.write(file.toPath(), (JSON.toString(root) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 检查本次压测与基线的环境是否一致，包括cpu核数、拦截器配置和每个接口的并发数
+     *
+     * @param current
+     * @return 不一致的描述，为空时才可以比较
+     */
+    List<String> mismatches(Baseline current) {
+        List<String> mismatches = Lists.newArrayList();
+        if (number(environment, "availableProcessors") != number(current.environment, "availableProcessors")) {
+            mismatches.add(describe("availableProcessors", environment.get("availableProcessors"), current.environment.get("availableProcessors")));
+        }
+        for (String key : ENVIRONMENT_PROPERTIES) {
+            if (!Objects.equals(environment.get(key), current.environment.get(key))) {
+                mismatches.add(describe(key, environment.get(key), current.environment.get(key)));
+            }
+        }
+        for (Map.Entry<String, Map<String, Object>> entry : current.endpoints.entrySet()) {
+            Map<String, Object> expected = endpoints.get(entry.getKey());
+            if (Objects.nonNull(expected) && number(expected, "concurrency") != number(entry.getValue(), "concurrency")) {
+                mismatches.add(describe(entry.getKey() + " concurrency", expected.get("concurrency"), entry.getValue().get("concurrency")));
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * 与本次结果比较，基线中不存在的接口不参与比较，调用前需要先通过mismatches确认环境一致
+     *
+     * @param current
+     * @param tolerance
+     * @return 退化描述
+     */
+    List<String> compare(Baseline current, double tolerance) {
+        List<String> regressions = Lists.newArrayList();
+        for (Map.Entry<String, Map<String, Object>> entry : current.endpoints.entrySet()) {
+            Map<String, Object> expected = endpoints.get(entry.getKey());
+            if (Objects.isNull(expected)) {
+                continue;
+            }
+            Map<String, Object> actual = entry.getValue();
+            double throughput = number(actual, "throughput");
+            double expectedThroughput = number(expected, "throughput");
+            if (throughput < expectedThroughput * (1 - tolerance)) {
+                regressions.add(describe(entry.getKey(), "throughput", expectedThroughput, throughput));
+            }
+            for (String key : new String[]{"p99Millis", "p999Millis"}) {
+                double latency = number(actual, key);
+                double expectedLatency = number(expected, key);
+                if (latency > expectedLatency * (1 + tolerance)) {
+                    regressions.add(describe(entry.getKey(), key, expectedLatency, latency));
+                }
+            }
+            if (number(actual, "errors") > number(expected, "errors")) {
+                regressions.add(describe(entry.getKey(), "errors", number(expected, "errors"), number(actual, "errors")));
+            }
+        }
+        return regressions;
+    }
+
+    private static double number(Map<String, Object> metrics, String key) {
+        Object value = metrics.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0D;
+    }
+
+    private static String describe(String name, Object expected, Object actual) {
+        return String.format(Locale.ROOT, "%s baseline=%s current=%s", name, expected, actual);
+    }
+
+    private static String describe(String endpoint, String metric, double expected, double actual) {
+        return String.format(Locale.ROOT, "%s %s baseline=%.3f current=%.3f", endpoint, metric, expected, actual);
+    }
+}
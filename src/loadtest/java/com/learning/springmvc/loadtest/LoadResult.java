@@ -0,0 +1,135 @@
+package com.learning.springmvc.loadtest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 23:20
+ * @description: 单个接口的压测结果，每个压测线程持有独立的Recorder，结束后合并所有延迟样本计算精确的分位数
+ */
+class LoadResult {
+
+    private final String endpoint;
+
+    private final int concurrency;
+
+    private final List<Recorder> recorders = Lists.newArrayList();
+
+    private long requests;
+
+    private long errors;
+
+    private double seconds;
+
+    private double throughput;
+
+    private double p50;
+
+    private double p99;
+
+    private double p999;
+
+    private double max;
+
+    LoadResult(String endpoint, int concurrency) {
+        this.endpoint = endpoint;
+        this.concurrency = concurrency;
+    }
+
+    Recorder newRecorder() {
+        Recorder recorder = new Recorder();
+        recorders.add(recorder);
+        return recorder;
+    }
+
+    /**
+     * 所有压测线程结束后合并样本
+     *
+     * @param elapsedNanos
+     */
+    void finish(long elapsedNanos) {
+        int total = 0;
+        for (Recorder recorder : recorders) {
+            total += recorder.size;
+            errors += recorder.errors;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Recorder recorder : recorders) {
+            System.arraycopy(recorder.latencies, 0, latencies, offset, recorder.size);
+            offset += recorder.size;
+        }
+        Arrays.sort(latencies);
+        requests = total;
+        seconds = elapsedNanos / 1e9;
+        throughput = total / seconds;
+        p50 = millis(latencies, 0.5);
+        p99 = millis(latencies, 0.99);
+        p999 = millis(latencies, 0.999);
+        max = total == 0 ? 0 : latencies[total - 1] / 1e6;
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = Maps.newLinkedHashMap();
+        map.put("concurrency", concurrency);
+        map.put("requests", requests);
+        map.put("errors", errors);
+        map.put("seconds", round(seconds));
+        map.put("throughput", round(throughput));
+        map.put("p50Millis", round(p50));
+        map.put("p99Millis", round(p99));
+        map.put("p999Millis", round(p999));
+        map.put("maxMillis", round(max));
+        return map;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000D;
+    }
+
+    String getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%-32s requests=%d errors=%d throughput=%.1f/s p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms",
+                endpoint, requests, errors, throughput, p50, p99, p999, max);
+    }
+
+    /**
+     * 单个压测线程的样本，只由该线程写入
+     */
+    static class Recorder {
+
+        private long[] latencies = new long[1 << 14];
+
+        private int size;
+
+        private long errors;
+
+        void record(long nanos, boolean success) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size << 1);
+            }
+            latencies[size++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+    }
+}
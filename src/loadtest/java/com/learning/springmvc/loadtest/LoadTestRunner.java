@@ -0,0 +1,210 @@
+package com.learning.springmvc.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.webapp.WebAppContext;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 23:10
+ * @description: 端到端压测，在本机启动嵌入式jetty，使用src/main/webapp/WEB-INF/web.xml和classpath中的application.properties部署DevDispatcherServlet
+ * 依次对每个接口施加固定并发的闭环压力，输出吞吐量和p50/p99/p999，结果写入json并与基线比较
+ * 运行方式：mvn -Ploadtest compile exec:exec -Dloadtest.args="concurrency=32 duration=20"
+ * 参数：concurrency并发数，warmup预热秒数，duration压测秒数，endpoints用|分隔的接口，
+ * baseline基线文件，tolerance允许的退化比例，update=true时用本次结果覆盖基线
+ * 基线按pom中的默认参数录制，cpu核数、并发数或拦截器配置与基线不一致时拒绝比较
+ */
+public class LoadTestRunner {
+
+    private static final String DEFAULT_ENDPOINTS = "/test/add?name=load|/test/async?name=load|/test/sub?a=5&b=3";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "3"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "10"));
+        List<String> endpoints = Lists.newArrayList(StringUtils.split(options.getOrDefault("endpoints", DEFAULT_ENDPOINTS), '|'));
+        File baselineFile = new File(options.getOrDefault("baseline", "src/loadtest/baseline.json"));
+        File resultFile = new File(options.getOrDefault("result", "target/loadtest/result.json"));
+        double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "0.15"));
+        boolean update = Boolean.parseBoolean(options.getOrDefault("update", "false"));
+
+        // HttpURLConnection默认每个地址只保持5个空闲连接，超出的连接用完即关闭
+        System.setProperty("http.maxConnections", String.valueOf(concurrency));
+
+        Server server = startServer();
+        int port = ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+        System.out.println("Embedded jetty started on port " + port + ", concurrency=" + concurrency
+                + ", warmup=" + warmup + "s, duration=" + duration + "s");
+
+        List<LoadResult> results = Lists.newArrayList();
+        try {
+            for (String endpoint : endpoints) {
+                URL url = new URL("http://127.0.0.1:" + port + endpoint);
+                run(url, concurrency, warmup, null);
+                LoadResult result = new LoadResult(endpoint, concurrency);
+                run(url, concurrency, duration, result);
+                results.add(result);
+                System.out.println(result);
+            }
+        } finally {
+            server.stop();
+        }
+
+        Baseline current = new Baseline(results, loadConfig());
+        current.write(resultFile);
+        System.out.println("Result written to " + resultFile);
+
+        if (update || !baselineFile.isFile()) {
+            current.write(baselineFile);
+            System.out.println("Baseline written to " + baselineFile);
+            return;
+        }
+        Baseline baseline = Baseline.read(baselineFile);
+        // 不同核数、并发数或拦截器配置下的结果没有可比性，拒绝比较，需要在相同环境下重新录制基线
+        List<String> mismatches = baseline.mismatches(current);
+        if (!mismatches.isEmpty()) {
+            for (String mismatch : mismatches) {
+                System.out.println("BASELINE MISMATCH " + mismatch);
+            }
+            System.out.println("Environment differs from " + baselineFile + ", rerun with update=true to record a new baseline");
+            System.exit(2);
+        }
+        List<String> regressions = baseline.compare(current, tolerance);
+        if (regressions.isEmpty()) {
+            System.out.println("No regression against " + baselineFile + " (tolerance " + tolerance + ")");
+            return;
+        }
+        for (String regression : regressions) {
+            System.out.println("REGRESSION " + regression);
+        }
+        System.exit(1);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = Maps.newHashMap();
+        for (String arg : args) {
+            int index = arg.indexOf('=');
+            if (index <= 0) {
+                throw new IllegalArgumentException("参数格式应为key=value:" + arg);
+            }
+            options.put(arg.substring(0, index), arg.substring(index + 1));
+        }
+        return options;
+    }
+
+    /**
+     * 读取压测部署使用的application.properties，拦截器配置会记录到结果中
+     *
+     * @return
+     * @throws IOException
+     */
+    private static Properties loadConfig() throws IOException {
+        Properties config = new Properties();
+        try (InputStream inputStream = LoadTestRunner.class.getClassLoader().getResourceAsStream("application.properties")) {
+            if (Objects.nonNull(inputStream)) {
+                config.load(inputStream);
+            }
+        }
+        return config;
+    }
+
+    private static Server startServer() throws Exception {
+        Server server = new Server(0);
+        WebAppContext context = new WebAppContext();
+        context.setContextPath("/");
+        context.setResourceBase("src/main/webapp");
+        context.setDescriptor("src/main/webapp/WEB-INF/web.xml");
+        // 直接使用当前classpath中的target/classes
+        context.setParentLoaderPriority(true);
+        server.setHandler(context);
+        server.start();
+        if (!context.isAvailable()) {
+            server.stop();
+            throw new IllegalStateException("web应用启动失败", context.getUnavailableException());
+        }
+        return server;
+    }
+
+    /**
+     * 固定并发压测一段时间，result为null时只预热不记录
+     *
+     * @param url
+     * @param concurrency
+     * @param seconds
+     * @param result
+     * @throws InterruptedException
+     */
+    private static void run(URL url, int concurrency, int seconds, LoadResult result) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch finished = new CountDownLatch(concurrency);
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            LoadResult.Recorder recorder = Objects.isNull(result) ? null : result.newRecorder();
+            Thread worker = new Thread(() -> {
+                byte[] buffer = new byte[8192];
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        boolean success = request(url, buffer);
+                        if (Objects.nonNull(recorder)) {
+                            recorder.record(System.nanoTime() - begin, success);
+                        }
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            }, "loadtest-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        finished.await();
+        if (Objects.nonNull(result)) {
+            result.finish(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 发送一次请求并读完响应体，读完后连接回到keep-alive缓存中复用
+     *
+     * @param url
+     * @param buffer
+     * @return 是否返回2xx
+     */
+    private static boolean request(URL url, byte[] buffer) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) url.openConnection();
+            int status = connection.getResponseCode();
+            try (InputStream inputStream = status >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
+                if (Objects.nonNull(inputStream)) {
+                    while (inputStream.read(buffer) >= 0) {
+                        // 丢弃响应体
+                    }
+                }
+            }
+            return status >= 200 && status < 300;
+        } catch (IOException e) {
+            if (Objects.nonNull(connection)) {
+                connection.disconnect();
+            }
+            return false;
+        }
+    }
+}
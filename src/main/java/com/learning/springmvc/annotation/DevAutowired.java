@@ -10,8 +10,9 @@ import java.lang.annotation.Target;
  * @author: dengxin.chen
  * @date: 2019-11-06 14:33
  * @description:自定义Autowired注解
+ * 标注在构造器上时按构造器参数注入，参数上的注解可以指定beanName，类只有一个带参构造器时可以省略
  */
-@Target({ElementType.FIELD})
+@Target({ElementType.FIELD, ElementType.CONSTRUCTOR, ElementType.PARAMETER})
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface DevAutowired {
@@ -0,0 +1,29 @@
+package com.learning.springmvc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 02:20
+ * @description: 缓存GET请求的响应，缓存key为路由加上@DevRequestParam、@DevPathVariable绑定后的参数值
+ * 只能用于参数全部来自@DevRequestParam或@DevPathVariable的方法，响应带有ETag，请求头If-None-Match匹配时返回304
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DevCacheable {
+
+    /**
+     * 缓存的有效时间
+     *
+     * @return
+     */
+    long ttl() default 60;
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+}
@@ -0,0 +1,20 @@
+package com.learning.springmvc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 03:30
+ * @description: 延迟初始化的单例，启动时不创建，第一次获取或被其他bean注入时才创建
+ * Controller在构建HandlerMapping时就需要实例，标注在Controller上不起作用
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DevLazy {
+    boolean value() default true;
+}
@@ -0,0 +1,20 @@
+package com.learning.springmvc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 20:10
+ * @description: 把阻塞的handler放到独立的执行器中运行，容器线程立即释放
+ * 标注在Controller上时对所有方法生效，方法上的注解优先，@DevOffload(false)可以单独关闭
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DevOffload {
+    boolean value() default true;
+}
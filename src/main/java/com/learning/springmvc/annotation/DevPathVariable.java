@@ -0,0 +1,20 @@
+package com.learning.springmvc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 03:05
+ * @description: 把url模板中的变量绑定到方法参数，如/users/{id}中的id
+ * 变量名必须在映射的url模板中存在，否则初始化时抛出异常
+ */
+@Target({ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DevPathVariable {
+    String value();
+}
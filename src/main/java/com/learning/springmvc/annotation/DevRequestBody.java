@@ -0,0 +1,20 @@
+package com.learning.springmvc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 01:50
+ * @description: 把json请求体绑定到方法参数，支持bean、集合、Map和数组
+ * required为true时请求体为空会抛出异常，为false时参数为null
+ */
+@Target({ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DevRequestBody {
+    boolean required() default true;
+}
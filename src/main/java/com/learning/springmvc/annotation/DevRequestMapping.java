@@ -10,10 +10,18 @@ import java.lang.annotation.Target;
  * @author: dengxin.chen
  * @date: 2019-11-06 14:34
  * @description:自定义RequestMapping注解
+ * 方法上可以通过method限定请求方法，同一路径的不同方法可以映射到不同的handler，不指定时处理所有请求方法
  */
 @Target({ElementType.TYPE, ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface DevRequestMapping {
     String value() default "";
+
+    /**
+     * 只在方法上生效
+     *
+     * @return
+     */
+    RequestMethod[] method() default {};
 }
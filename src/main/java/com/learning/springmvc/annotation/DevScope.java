@@ -0,0 +1,25 @@
+package com.learning.springmvc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 03:30
+ * @description: 组件的作用域，默认为单例
+ * prototype作用域的bean每次获取或注入时都创建新实例，只能用于@DevService
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DevScope {
+
+    String SINGLETON = "singleton";
+
+    String PROTOTYPE = "prototype";
+
+    String value() default SINGLETON;
+}
@@ -0,0 +1,10 @@
+package com.learning.springmvc.annotation;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 02:40
+ * @description: http请求方法，用于@DevRequestMapping的method属性
+ */
+public enum RequestMethod {
+    GET, HEAD, POST, PUT, PATCH, DELETE, OPTIONS, TRACE
+}
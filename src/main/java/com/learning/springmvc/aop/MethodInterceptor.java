@@ -0,0 +1,30 @@
+package com.learning.springmvc.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 05:00
+ * @description: 方法拦截器，用于在bean的方法调用前后织入耗时统计、缓存、重试、限流等横切逻辑
+ * 自定义实现可通过配置文件中的interceptors注册，多个拦截器按配置顺序组成调用链
+ */
+public interface MethodInterceptor {
+
+    /**
+     * 是否拦截该方法，只在生成代理类时对每个方法调用一次，结果保存在该方法的调用链中
+     *
+     * @param method
+     * @param targetClass bean的原始类型
+     * @return
+     */
+    boolean matches(Method method, Class<?> targetClass);
+
+    /**
+     * 执行拦截逻辑，调用invocation.proceed()继续执行调用链中的下一个拦截器，最后执行原方法
+     *
+     * @param invocation
+     * @return 方法的返回值
+     * @throws Throwable
+     */
+    Object invoke(MethodInvocation invocation) throws Throwable;
+}
@@ -0,0 +1,78 @@
+package com.learning.springmvc.aop;
+
+import java.lang.reflect.Method;
+
+import net.sf.cglib.proxy.MethodProxy;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 05:00
+ * @description: 一次被拦截的方法调用，保存调用链和当前执行到的位置
+ * 每次调用创建一个实例，只在调用线程内使用
+ */
+public final class MethodInvocation {
+
+    private final Object target;
+
+    private final Method method;
+
+    private final Object[] arguments;
+
+    private final MethodProxy methodProxy;
+
+    private final MethodInterceptor[] chain;
+
+    /**
+     * 下一个要执行的拦截器下标
+     */
+    private int index;
+
+    MethodInvocation(Object target, Method method, Object[] arguments, MethodProxy methodProxy, MethodInterceptor[] chain) {
+        this.target = target;
+        this.method = method;
+        this.arguments = arguments;
+        this.methodProxy = methodProxy;
+        this.chain = chain;
+    }
+
+    /**
+     * 执行调用链中的下一个拦截器，已是最后一个时执行原方法
+     * 返回前恢复当前位置，拦截器可以多次调用以实现重试
+     *
+     * @return
+     * @throws Throwable
+     */
+    public Object proceed() throws Throwable {
+        if (index == chain.length) {
+            return methodProxy.invokeSuper(target, arguments);
+        }
+        int current = index++;
+        try {
+            return chain[current].invoke(this);
+        } finally {
+            index = current;
+        }
+    }
+
+    /**
+     * 被调用的bean，即代理类的实例
+     *
+     * @return
+     */
+    public Object getTarget() {
+        return target;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * 方法参数，拦截器修改数组中的值后再调用proceed()会使用修改后的参数
+     *
+     * @return
+     */
+    public Object[] getArguments() {
+        return arguments;
+    }
+}
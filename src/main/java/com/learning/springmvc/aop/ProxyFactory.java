@@ -0,0 +1,112 @@
+package com.learning.springmvc.aop;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
+import net.sf.cglib.proxy.MethodProxy;
+import net.sf.cglib.proxy.NoOp;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 05:00
+ * @description: 使用cglib为bean生成代理子类
+ * 生成代理类时为每个方法计算一次调用链，每个被拦截的方法对应一个独立的回调，调用时不再匹配拦截器
+ * 没有拦截器匹配的方法通过CallbackFilter映射到NoOp，代理类不会覆盖这些方法，调用开销与原类相同；所有方法都不匹配时不生成代理类
+ * 代理类直接作为bean实例，由容器通过代理类的构造器创建并注入属性，原方法通过MethodProxy.invokeSuper调用
+ */
+public class ProxyFactory {
+
+    private final List<MethodInterceptor> interceptors;
+
+    public ProxyFactory(List<MethodInterceptor> interceptors) {
+        this.interceptors = interceptors;
+    }
+
+    /**
+     * 获取bean实例化时使用的类型
+     *
+     * @param type bean的原始类型
+     * @return 代理类，没有方法需要拦截时返回原始类型
+     */
+    public Class<?> getProxyClass(Class<?> type) {
+        if (interceptors.isEmpty()) {
+            return type;
+        }
+        List<Method> methods = Lists.newArrayList();
+        // 与cglib生成代理类时遍历的方法一致，已排除static、final和不可见的方法
+        Enhancer.getMethods(type, null, methods);
+        List<Callback> callbacks = Lists.newArrayList(NoOp.INSTANCE);
+        Map<String, Integer> callbackIndexes = Maps.newHashMap();
+        for (Method method : methods) {
+            MethodInterceptor[] chain = interceptors.stream()
+                    .filter(interceptor -> interceptor.matches(method, type))
+                    .toArray(MethodInterceptor[]::new);
+            if (chain.length > 0) {
+                callbackIndexes.put(signature(method), callbacks.size());
+                callbacks.add(new ChainCallback(chain));
+            }
+        }
+        if (callbacks.size() == 1) {
+            return type;
+        }
+        if (Modifier.isFinal(type.getModifiers())) {
+            throw new IllegalStateException("无法代理final类:" + type.getName());
+        }
+
+        Class<?>[] callbackTypes = new Class<?>[callbacks.size()];
+        for (int i = 0; i < callbackTypes.length; i++) {
+            callbackTypes[i] = callbacks.get(i).getClass();
+        }
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(type);
+        enhancer.setClassLoader(type.getClassLoader());
+        // 回调以静态方式注册在代理类上，每个bean类型都要生成自己的代理类
+        enhancer.setUseCache(false);
+        enhancer.setCallbackTypes(callbackTypes);
+        enhancer.setCallbackFilter(method -> callbackIndexes.getOrDefault(signature(method), 0));
+        Class<?> proxyClass = enhancer.createClass();
+        // 通过任意构造器创建的实例都使用这些回调，容器可以直接调用代理类的构造器
+        Enhancer.registerStaticCallbacks(proxyClass, callbacks.toArray(new Callback[0]));
+        return proxyClass;
+    }
+
+    /**
+     * 获取代理类对应的原始类型，用于读取类和方法上的注解
+     *
+     * @param clazz
+     * @return
+     */
+    public static Class<?> getUserClass(Class<?> clazz) {
+        return Factory.class.isAssignableFrom(clazz) ? clazz.getSuperclass() : clazz;
+    }
+
+    private static String signature(Method method) {
+        return method.getName() + Arrays.toString(method.getParameterTypes());
+    }
+
+    /**
+     * 一个被拦截方法的回调，持有该方法预先计算好的调用链
+     */
+    private static class ChainCallback implements net.sf.cglib.proxy.MethodInterceptor {
+
+        private final MethodInterceptor[] chain;
+
+        private ChainCallback(MethodInterceptor[] chain) {
+            this.chain = chain;
+        }
+
+        @Override
+        public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy) throws Throwable {
+            return new MethodInvocation(obj, method, args, proxy, chain).proceed();
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package com.learning.springmvc.context;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.learning.springmvc.aop.ProxyFactory;
+import com.learning.springmvc.util.CommonUtils;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 03:30
+ * @description: bean容器，保存组件定义和已创建的单例
+ * 每个组件类只对应一个beanName，类名和实现的接口名都注册为它的别名，按任意名称获取到的都是同一个单例
+ * 已创建的单例直接从ConcurrentHashMap读取，不加锁；单例的创建在同一把锁内完成，延迟初始化的bean被多个线程同时获取时也只创建一次
+ * prototype作用域的bean每次获取都创建新实例
+ * 启动时先根据构造器参数建立依赖图，校验缺失的依赖和循环依赖，再按拓扑顺序在ForkJoinPool中并行创建互不依赖的单例
+ * 每个bean的构造器、属性setter和依赖在第一次创建时编译为InjectionPlan，之后的创建直接执行计划
+ * 配置了ProxyFactory时，有方法需要拦截的bean直接通过cglib代理类实例化，容器中保存的就是代理对象
+ */
+public class BeanFactory {
+
+    /**
+     * 同一个别名对应多个bean，按该名称获取时报错
+     */
+    private static final String AMBIGUOUS = "";
+
+    private final ClassLoader classLoader;
+
+    /**
+     * 为bean生成代理类，为null时不生成代理
+     */
+    private final ProxyFactory proxyFactory;
+
+    /**
+     * beanName -> 组件定义
+     */
+    private final Map<String, ComponentDefinition> definitions = new ConcurrentHashMap<>();
+
+    /**
+     * 注册顺序，启动时按该顺序创建单例
+     */
+    private final List<String> beanNames = Lists.newCopyOnWriteArrayList();
+
+    /**
+     * 别名 -> beanName
+     */
+    private final Map<String, String> aliases = new ConcurrentHashMap<>();
+
+    /**
+     * 已完成依赖注入的单例
+     */
+    private final Map<String, Object> singletons = new ConcurrentHashMap<>();
+
+    /**
+     * 启动阶段已通过构造器创建、还未注入属性的单例，启动完成后移入singletons
+     */
+    private final Map<String, Object> bootSingletons = new ConcurrentHashMap<>();
+
+    /**
+     * 运行时创建单例过程中还在注入属性的实例，属性之间存在循环依赖时提前暴露，只在持有creationLock时读取
+     */
+    private final Map<String, Object> earlySingletons = Maps.newHashMap();
+
+    /**
+     * beanName -> 注入计划
+     */
+    private final Map<String, InjectionPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * 创建单例时持有的锁，两个线程交叉创建互相依赖的bean时使用各自的锁会死锁
+     */
+    private final Object creationLock = new Object();
+
+    public BeanFactory(ClassLoader classLoader) {
+        this(classLoader, null);
+    }
+
+    public BeanFactory(ClassLoader classLoader, ProxyFactory proxyFactory) {
+        this.classLoader = classLoader;
+        this.proxyFactory = proxyFactory;
+    }
+
+    /**
+     * 注册组件定义，beanName为注解上配置的名称，没有配置时为首字母小写的类名
+     *
+     * @param definition
+     * @return beanName
+     */
+    public String register(ComponentDefinition definition) {
+        if (definition.isController() && definition.isPrototype()) {
+            throw new IllegalStateException("Controller不支持prototype作用域:" + definition.getClassName());
+        }
+        String beanName = definition.getName();
+        if (StringUtils.isEmpty(beanName)) {
+            String className = definition.getClassName();
+            beanName = CommonUtils.toLowerFirstCase(className.substring(Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1));
+        }
+        if (Objects.nonNull(definitions.putIfAbsent(beanName, definition))) {
+            throw new IllegalStateException("已存在相同名称的bean:" + beanName + " " + definition.getClassName()
+                    + "与" + definitions.get(beanName).getClassName());
+        }
+        beanNames.add(beanName);
+        registerAlias(definition.getClassName(), beanName);
+        for (String interfaceName : definition.getInterfaceNames()) {
+            registerAlias(interfaceName, beanName);
+        }
+        return beanName;
+    }
+
+    /**
+     * 校验依赖并创建所有非延迟加载的单例
+     * 第一阶段按构造器依赖的拓扑顺序并行创建实例，一个bean的任务在它依赖的单例都创建完成后才提交；
+     * 第二阶段所有实例都已存在，再并行注入属性，单例属性之间的循环依赖直接引用已创建的实例
+     *
+     * @param pool
+     */
+    public void preInstantiateSingletons(ForkJoinPool pool) {
+        Map<String, List<String>> graph = validate();
+        Map<String, CompletableFuture<Object>> instances = Maps.newLinkedHashMap();
+        for (String beanName : beanNames) {
+            ComponentDefinition definition = definitions.get(beanName);
+            if (!definition.isPrototype() && (!definition.isLazy() || definition.isController())) {
+                instantiateAsync(beanName, graph, instances, pool);
+            }
+        }
+        join(instances.values());
+
+        List<CompletableFuture<?>> injections = Lists.newArrayListWithCapacity(instances.size());
+        for (Map.Entry<String, CompletableFuture<Object>> entry : instances.entrySet()) {
+            Object bean = entry.getValue().join();
+            InjectionPlan plan = plan(entry.getKey());
+            injections.add(CompletableFuture.runAsync(() -> plan.inject(bean, this), pool));
+        }
+        join(injections);
+
+        singletons.putAll(bootSingletons);
+        bootSingletons.clear();
+    }
+
+    /**
+     * 按beanName、类名或接口名获取bean
+     *
+     * @param name
+     * @return
+     */
+    public Object getBean(String name) {
+        String beanName = resolveName(name);
+        Object bean = singletons.get(beanName);
+        if (Objects.nonNull(bean)) {
+            return bean;
+        }
+        bean = bootSingletons.get(beanName);
+        if (Objects.nonNull(bean)) {
+            return bean;
+        }
+        if (definitions.get(beanName).isPrototype()) {
+            InjectionPlan plan = plan(beanName);
+            bean = plan.instantiate(this);
+            plan.inject(bean, this);
+            return bean;
+        }
+        synchronized (creationLock) {
+            bean = singletons.get(beanName);
+            if (Objects.isNull(bean)) {
+                bean = earlySingletons.get(beanName);
+            }
+            if (Objects.nonNull(bean)) {
+                return bean;
+            }
+            InjectionPlan plan = plan(beanName);
+            bean = plan.instantiate(this);
+            earlySingletons.put(beanName, bean);
+            try {
+                plan.inject(bean, this);
+                singletons.put(beanName, bean);
+            } finally {
+                earlySingletons.remove(beanName);
+            }
+            return bean;
+        }
+    }
+
+    /**
+     * 是否存在该名称的bean，名称对应多个bean时也返回true
+     *
+     * @param name
+     * @return
+     */
+    public boolean containsBean(String name) {
+        return definitions.containsKey(name) || aliases.containsKey(name);
+    }
+
+    public ComponentDefinition getDefinition(String beanName) {
+        return definitions.get(beanName);
+    }
+
+    /**
+     * 按注册顺序返回所有beanName
+     *
+     * @return
+     */
+    public Collection<String> getBeanNames() {
+        return beanNames;
+    }
+
+    /**
+     * 已创建的单例数量，用于确认延迟加载的bean是否已创建
+     *
+     * @return
+     */
+    public int getSingletonCount() {
+        return singletons.size();
+    }
+
+    /**
+     * 建立创建实例时的依赖图并校验
+     * 边为构造器参数，prototype bean每次都完整创建，它的属性依赖也算作边；单例的属性依赖在实例创建后注入，不参与排序
+     * 依赖不存在、名称对应多个bean或者图中存在环时抛出异常，错误信息包含完整的依赖路径
+     *
+     * @return beanName -> 创建实例前需要先创建的beanName
+     */
+    private Map<String, List<String>> validate() {
+        Map<String, List<String>> graph = Maps.newLinkedHashMap();
+        for (String beanName : beanNames) {
+            ComponentDefinition definition = definitions.get(beanName);
+            List<String> dependencies = Lists.newArrayList();
+            if (Objects.nonNull(definition.getConstructor())) {
+                for (String dependency : definition.getConstructor().getBeanNames()) {
+                    dependencies.add(resolveDependency(beanName, dependency));
+                }
+            }
+            for (InjectionPoint injectionPoint : definition.getInjectionPoints()) {
+                String dependency = resolveDependency(beanName, injectionPoint.getBeanName());
+                if (definition.isPrototype()) {
+                    dependencies.add(dependency);
+                }
+            }
+            graph.put(beanName, dependencies);
+        }
+
+        Map<String, Boolean> visited = Maps.newHashMap();
+        for (String beanName : graph.keySet()) {
+            checkCycle(beanName, graph, visited, Lists.newArrayList());
+        }
+        return graph;
+    }
+
+    private String resolveDependency(String beanName, String dependency) {
+        try {
+            return resolveName(dependency);
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("bean " + beanName + "的依赖无法注入:" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 深度优先遍历，visited中false表示在当前路径上，true表示已确认无环
+     *
+     * @param beanName
+     * @param graph
+     * @param visited
+     * @param path
+     */
+    private static void checkCycle(String beanName, Map<String, List<String>> graph, Map<String, Boolean> visited, List<String> path) {
+        Boolean state = visited.get(beanName);
+        if (Boolean.TRUE.equals(state)) {
+            return;
+        }
+        if (Boolean.FALSE.equals(state)) {
+            List<String> cycle = Lists.newArrayList(path.subList(path.indexOf(beanName), path.size()));
+            cycle.add(beanName);
+            throw new IllegalStateException("存在循环依赖:" + String.join(" -> ", cycle));
+        }
+        visited.put(beanName, false);
+        path.add(beanName);
+        for (String dependency : graph.get(beanName)) {
+            checkCycle(dependency, graph, visited, path);
+        }
+        path.remove(path.size() - 1);
+        visited.put(beanName, true);
+    }
+
+    /**
+     * 提交单例的创建任务，任务在它直接或经由prototype间接依赖的单例都创建完成后执行
+     * 依赖图已校验无环，递归一定会结束
+     *
+     * @param beanName
+     * @param graph
+     * @param instances
+     * @param pool
+     * @return
+     */
+    private CompletableFuture<Object> instantiateAsync(String beanName, Map<String, List<String>> graph,
+                                                       Map<String, CompletableFuture<Object>> instances, ForkJoinPool pool) {
+        CompletableFuture<Object> future = instances.get(beanName);
+        if (Objects.nonNull(future)) {
+            return future;
+        }
+        Object created = singletons.get(beanName);
+        if (Objects.nonNull(created)) {
+            return CompletableFuture.completedFuture(created);
+        }
+        List<CompletableFuture<Object>> dependencies = Lists.newArrayList();
+        collectDependencies(beanName, graph, instances, pool, dependencies);
+        future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                .thenApplyAsync(ignored -> {
+                    Object bean = plan(beanName).instantiate(this);
+                    bootSingletons.put(beanName, bean);
+                    return bean;
+                }, pool);
+        instances.put(beanName, future);
+        return future;
+    }
+
+    private void collectDependencies(String beanName, Map<String, List<String>> graph, Map<String, CompletableFuture<Object>> instances,
+                                     ForkJoinPool pool, List<CompletableFuture<Object>> dependencies) {
+        for (String dependency : graph.get(beanName)) {
+            if (definitions.get(dependency).isPrototype()) {
+                collectDependencies(dependency, graph, instances, pool, dependencies);
+            } else {
+                dependencies.add(instantiateAsync(dependency, graph, instances, pool));
+            }
+        }
+    }
+
+    private static void join(Collection<? extends CompletableFuture<?>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void registerAlias(String alias, String beanName) {
+        String previous = aliases.putIfAbsent(alias, beanName);
+        if (Objects.nonNull(previous) && !previous.equals(beanName)) {
+            aliases.put(alias, AMBIGUOUS);
+        }
+    }
+
+    private String resolveName(String name) {
+        if (definitions.containsKey(name)) {
+            return name;
+        }
+        String beanName = aliases.get(name);
+        if (Objects.isNull(beanName)) {
+            throw new IllegalStateException("不存在的bean:" + name);
+        }
+        if (AMBIGUOUS.equals(beanName)) {
+            throw new IllegalStateException("存在多个" + name + "类型的bean，需要在@DevAutowired中指定beanName");
+        }
+        return beanName;
+    }
+
+    /**
+     * 获取依赖的bean，已完成初始化的单例保存到依赖中，下次直接返回
+     *
+     * @param dependency
+     * @return
+     */
+    Object resolve(InjectionPlan.Dependency dependency) {
+        Object bean = dependency.singleton;
+        if (Objects.nonNull(bean)) {
+            return bean;
+        }
+        bean = getBean(dependency.beanName);
+        if (!dependency.prototype && singletons.get(dependency.beanName) == bean) {
+            dependency.singleton = bean;
+        }
+        return bean;
+    }
+
+    private InjectionPlan plan(String beanName) {
+        InjectionPlan plan = plans.get(beanName);
+        if (Objects.nonNull(plan)) {
+            return plan;
+        }
+        return plans.computeIfAbsent(beanName, this::createPlan);
+    }
+
+    /**
+     * 生成注入计划，依赖的名称在这里一次性解析为beanName，有方法需要拦截时同时生成代理类
+     *
+     * @param beanName
+     * @return
+     */
+    private InjectionPlan createPlan(String beanName) {
+        ComponentDefinition definition = definitions.get(beanName);
+        Class<?> type;
+        try {
+            type = definition.getType(classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("bean实例化异常:" + definition.getClassName(), e);
+        }
+        String[] constructorBeanNames = Objects.isNull(definition.getConstructor()) ? new String[0] : definition.getConstructor().getBeanNames();
+        InjectionPlan.Dependency[] constructorDependencies = new InjectionPlan.Dependency[constructorBeanNames.length];
+        for (int i = 0; i < constructorDependencies.length; i++) {
+            constructorDependencies[i] = dependency(beanName, constructorBeanNames[i]);
+        }
+        List<InjectionPoint> injectionPoints = definition.getInjectionPoints();
+        InjectionPlan.Dependency[] fieldDependencies = new InjectionPlan.Dependency[injectionPoints.size()];
+        for (int i = 0; i < fieldDependencies.length; i++) {
+            fieldDependencies[i] = dependency(beanName, injectionPoints.get(i).getBeanName());
+        }
+        Class<?> instanceType = Objects.isNull(proxyFactory) ? type : proxyFactory.getProxyClass(type);
+        return InjectionPlan.create(definition, type, instanceType, constructorDependencies, fieldDependencies);
+    }
+
+    private InjectionPlan.Dependency dependency(String beanName, String name) {
+        String dependency = resolveDependency(beanName, name);
+        return new InjectionPlan.Dependency(dependency, definitions.get(dependency).isPrototype());
+    }
+}
@@ -0,0 +1,267 @@
+package com.learning.springmvc.context;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 16:30
+ * @description: classpath扫描器，同时支持目录和jar包
+ * 通过解析class文件的常量池筛选可能使用了指定注解的类，不需要加载类，只有候选类才会交给类加载器
+ * class文件的读取和解析在ForkJoinPool中并行执行
+ */
+public class ClassPathScanner {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final ClassLoader classLoader;
+
+    public ClassPathScanner(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 扫描包下可能使用了任意一个指定注解的类
+     *
+     * @param basePackage
+     * @param annotationTypes
+     * @return 按名称排序的类名
+     */
+    @SafeVarargs
+    public final List<String> scan(String basePackage, Class<? extends Annotation>... annotationTypes) {
+        byte[][] descriptors = new byte[annotationTypes.length][];
+        for (int i = 0; i < annotationTypes.length; i++) {
+            descriptors[i] = ("L" + annotationTypes[i].getName().replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
+        }
+
+        List<ClassResource> resources = Lists.newArrayList();
+        List<JarFile> jarFiles = Lists.newArrayList();
+        String path = basePackage.replace('.', '/');
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            Enumeration<URL> urls = classLoader.getResources(path);
+            while (urls.hasMoreElements()) {
+                collect(urls.nextElement(), path, resources, jarFiles);
+            }
+            List<String> classNames = pool.submit(() -> resources.parallelStream()
+                    .filter(resource -> resource.isAnnotated(descriptors))
+                    .map(resource -> resource.className)
+                    .sorted()
+                    .collect(Collectors.toList()))
+                    .get();
+            return classNames;
+        } catch (IOException | URISyntaxException e) {
+            throw new IllegalStateException("扫描包异常:" + basePackage, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("扫描包被中断:" + basePackage, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("扫描包异常:" + basePackage, e.getCause());
+        } finally {
+            pool.shutdown();
+            for (JarFile jarFile : jarFiles) {
+                try {
+                    jarFile.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void collect(URL url, String path, List<ClassResource> resources, List<JarFile> jarFiles) throws IOException, URISyntaxException {
+        if ("file".equals(url.getProtocol())) {
+            Path root = new File(url.toURI()).toPath();
+            Path classRoot = root;
+            for (int i = 0; i < path.split("/").length; i++) {
+                classRoot = classRoot.getParent();
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    String name = classRoot.relativize(file).toString().replace(File.separatorChar, '/');
+                    if (isClassFile(name)) {
+                        resources.add(new FileResource(toClassName(name), file));
+                    }
+                }
+            }
+            return;
+        }
+        URLConnection connection = url.openConnection();
+        if (connection instanceof JarURLConnection) {
+            JarURLConnection jarConnection = (JarURLConnection) connection;
+            jarConnection.setUseCaches(false);
+            JarFile jarFile = jarConnection.getJarFile();
+            jarFiles.add(jarFile);
+            String prefix = path + "/";
+            for (JarEntry entry : Collections.list(jarFile.entries())) {
+                if (entry.getName().startsWith(prefix) && isClassFile(entry.getName())) {
+                    resources.add(new JarResource(toClassName(entry.getName()), jarFile, entry));
+                }
+            }
+            return;
+        }
+        System.out.println("Unsupported classpath resource, skip:" + url);
+    }
+
+    private static boolean isClassFile(String name) {
+        return name.endsWith(CLASS_SUFFIX) && !name.endsWith("package-info.class") && !name.endsWith("module-info.class");
+    }
+
+    private static String toClassName(String name) {
+        return name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.');
+    }
+
+    /**
+     * 读取class文件的常量池，只要出现注解的类型描述符即作为候选类
+     * 局部变量表中同类型的变量也会产生相同的描述符，候选类加载后仍需通过反射确认注解
+     *
+     * @param inputStream
+     * @param descriptors
+     * @return
+     * @throws IOException
+     */
+    static boolean containsDescriptor(InputStream inputStream, byte[][] descriptors) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+        if (input.readInt() != MAGIC) {
+            return false;
+        }
+        // minor_version major_version
+        input.skipBytes(4);
+        int count = input.readUnsignedShort();
+        for (int i = 1; i < count; i++) {
+            int tag = input.readUnsignedByte();
+            switch (tag) {
+                // Utf8
+                case 1:
+                    int length = input.readUnsignedShort();
+                    byte[] bytes = null;
+                    for (byte[] descriptor : descriptors) {
+                        if (descriptor.length != length) {
+                            continue;
+                        }
+                        if (Objects.isNull(bytes)) {
+                            bytes = new byte[length];
+                            input.readFully(bytes);
+                        }
+                        if (Arrays.equals(bytes, descriptor)) {
+                            return true;
+                        }
+                    }
+                    if (Objects.isNull(bytes)) {
+                        input.skipBytes(length);
+                    }
+                    break;
+                // Class String MethodType Module Package
+                case 7:
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    input.skipBytes(2);
+                    break;
+                // MethodHandle
+                case 15:
+                    input.skipBytes(3);
+                    break;
+                // Integer Float Fieldref Methodref InterfaceMethodref NameAndType Dynamic InvokeDynamic
+                case 3:
+                case 4:
+                case 9:
+                case 10:
+                case 11:
+                case 12:
+                case 17:
+                case 18:
+                    input.skipBytes(4);
+                    break;
+                // Long Double 占用两个常量池位置
+                case 5:
+                case 6:
+                    input.skipBytes(8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag:" + tag);
+            }
+        }
+        return false;
+    }
+
+    private abstract static class ClassResource {
+
+        protected final String className;
+
+        ClassResource(String className) {
+            this.className = className;
+        }
+
+        abstract InputStream open() throws IOException;
+
+        boolean isAnnotated(byte[][] descriptors) {
+            try (InputStream inputStream = open()) {
+                return containsDescriptor(inputStream, descriptors);
+            } catch (IOException e) {
+                System.out.println("Failed to read class file, skip:" + className + " " + e);
+                return false;
+            }
+        }
+    }
+
+    private static class FileResource extends ClassResource {
+
+        private final Path file;
+
+        FileResource(String className, Path file) {
+            super(className);
+            this.file = file;
+        }
+
+        @Override
+        InputStream open() throws IOException {
+            return Files.newInputStream(file);
+        }
+    }
+
+    private static class JarResource extends ClassResource {
+
+        private final JarFile jarFile;
+        private final JarEntry entry;
+
+        JarResource(String className, JarFile jarFile, JarEntry entry) {
+            super(className);
+            this.jarFile = jarFile;
+            this.entry = entry;
+        }
+
+        @Override
+        InputStream open() throws IOException {
+            return jarFile.getInputStream(entry);
+        }
+    }
+}
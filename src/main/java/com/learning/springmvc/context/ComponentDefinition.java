@@ -0,0 +1,276 @@
+package com.learning.springmvc.context;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.collect.Lists;
+import com.learning.springmvc.annotation.DevAutowired;
+import com.learning.springmvc.annotation.DevController;
+import com.learning.springmvc.annotation.DevLazy;
+import com.learning.springmvc.annotation.DevRequestMapping;
+import com.learning.springmvc.annotation.DevScope;
+import com.learning.springmvc.annotation.DevService;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 15:00
+ * @description: 组件定义，保存初始化一个@DevController或@DevService所需的全部元数据
+ * 可以由编译期生成的ComponentProvider提供，也可以在运行时通过反射读取
+ */
+public class ComponentDefinition {
+
+    private final String className;
+
+    /**
+     * 编译期生成时直接持有Class，运行时扫描时按需加载
+     */
+    private volatile Class<?> type;
+
+    /**
+     * 编译期生成的构造器引用，为null时通过反射实例化
+     */
+    private final Supplier<?> factory;
+
+    private final boolean controller;
+
+    /**
+     * 注解上配置的名称
+     */
+    private final String name;
+
+    /**
+     * 作用域，@DevScope的值，默认为单例
+     */
+    private final String scope;
+
+    /**
+     * 是否延迟到第一次使用时才创建
+     */
+    private final boolean lazy;
+
+    private final List<String> interfaceNames;
+
+    /**
+     * 构造器注入的定义，使用无参构造器时为null
+     */
+    private final ConstructorDefinition constructor;
+
+    private final List<InjectionPoint> injectionPoints;
+
+    /**
+     * Controller上@DevRequestMapping的值
+     */
+    private final String baseUrl;
+
+    private final List<RouteDefinition> routes;
+
+    public ComponentDefinition(String className, Class<?> type, Supplier<?> factory, boolean controller, String name, String scope,
+                               boolean lazy, List<String> interfaceNames, ConstructorDefinition constructor,
+                               List<InjectionPoint> injectionPoints, String baseUrl, List<RouteDefinition> routes) {
+        this.className = className;
+        this.type = type;
+        this.factory = factory;
+        this.controller = controller;
+        this.name = name;
+        this.scope = scope;
+        this.lazy = lazy;
+        this.interfaceNames = interfaceNames;
+        this.constructor = constructor;
+        this.injectionPoints = injectionPoints;
+        this.baseUrl = baseUrl;
+        this.routes = routes;
+    }
+
+    /**
+     * 通过反射读取组件定义，没有@DevController或@DevService注解时返回null
+     *
+     * @param clazz
+     * @return
+     */
+    public static ComponentDefinition fromClass(Class<?> clazz) {
+        boolean controller = clazz.isAnnotationPresent(DevController.class);
+        if (!controller && !clazz.isAnnotationPresent(DevService.class)) {
+            return null;
+        }
+        String name = controller ? clazz.getAnnotation(DevController.class).value() : clazz.getAnnotation(DevService.class).value();
+        String scope = clazz.isAnnotationPresent(DevScope.class) ? clazz.getAnnotation(DevScope.class).value() : DevScope.SINGLETON;
+        boolean lazy = clazz.isAnnotationPresent(DevLazy.class) && clazz.getAnnotation(DevLazy.class).value();
+
+        List<String> interfaceNames = Lists.newArrayList();
+        for (Class<?> itemInterface : clazz.getInterfaces()) {
+            interfaceNames.add(itemInterface.getName());
+        }
+
+        ConstructorDefinition constructor = constructorDefinition(clazz);
+
+        List<InjectionPoint> injectionPoints = Lists.newArrayList();
+        for (Field field : clazz.getDeclaredFields()) {
+            if (!field.isAnnotationPresent(DevAutowired.class)) {
+                continue;
+            }
+            String beanName = field.getAnnotation(DevAutowired.class).value().trim();
+            if (StringUtils.isAllBlank(beanName)) {
+                // 获取类型的名称
+                beanName = field.getType().getName();
+            }
+            injectionPoints.add(new InjectionPoint(field.getName(), beanName));
+        }
+
+        String baseUrl = "";
+        List<RouteDefinition> routes = Lists.newArrayList();
+        if (controller) {
+            if (clazz.isAnnotationPresent(DevRequestMapping.class)) {
+                baseUrl = clazz.getAnnotation(DevRequestMapping.class).value();
+            }
+            for (Method method : clazz.getMethods()) {
+                if (!method.isAnnotationPresent(DevRequestMapping.class)) {
+                    continue;
+                }
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                String[] parameterTypeNames = new String[parameterTypes.length];
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    parameterTypeNames[i] = parameterTypes[i].getName();
+                }
+                routes.add(new RouteDefinition(method.getName(), parameterTypeNames, method.getAnnotation(DevRequestMapping.class).value()));
+            }
+        }
+        return new ComponentDefinition(clazz.getName(), clazz, null, controller, name, scope, lazy, interfaceNames, constructor,
+                injectionPoints, baseUrl, routes);
+    }
+
+    /**
+     * 选择注入用的构造器，优先使用标注了@DevAutowired的构造器，其次是唯一的带参构造器
+     *
+     * @param clazz
+     * @return 使用无参构造器时返回null
+     */
+    private static ConstructorDefinition constructorDefinition(Class<?> clazz) {
+        Constructor<?> selected = null;
+        Constructor<?>[] constructors = clazz.getDeclaredConstructors();
+        for (Constructor<?> item : constructors) {
+            if (item.isAnnotationPresent(DevAutowired.class)) {
+                if (Objects.nonNull(selected)) {
+                    throw new IllegalStateException("只能有一个构造器标注@DevAutowired:" + clazz.getName());
+                }
+                selected = item;
+            }
+        }
+        if (Objects.isNull(selected) && constructors.length == 1 && constructors[0].getParameterCount() > 0) {
+            selected = constructors[0];
+        }
+        if (Objects.isNull(selected) || selected.getParameterCount() == 0) {
+            return null;
+        }
+        Class<?>[] parameterTypes = selected.getParameterTypes();
+        String[] parameterTypeNames = new String[parameterTypes.length];
+        String[] beanNames = new String[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            parameterTypeNames[i] = parameterTypes[i].getName();
+            beanNames[i] = parameterTypes[i].getName();
+            for (Annotation annotation : selected.getParameterAnnotations()[i]) {
+                if (annotation instanceof DevAutowired && StringUtils.isNotBlank(((DevAutowired) annotation).value())) {
+                    beanNames[i] = ((DevAutowired) annotation).value().trim();
+                }
+            }
+        }
+        return new ConstructorDefinition(parameterTypeNames, beanNames);
+    }
+
+    /**
+     * 获取组件类型，必要时通过类加载器加载
+     *
+     * @param classLoader
+     * @return
+     * @throws ClassNotFoundException
+     */
+    public Class<?> getType(ClassLoader classLoader) throws ClassNotFoundException {
+        if (Objects.isNull(type)) {
+            type = Class.forName(className, true, classLoader);
+        }
+        return type;
+    }
+
+    /**
+     * 创建组件实例
+     *
+     * @param classLoader
+     * @return
+     * @throws ReflectiveOperationException
+     */
+    public Object newInstance(ClassLoader classLoader) throws ReflectiveOperationException {
+        return newInstance(classLoader, new Object[0]);
+    }
+
+    /**
+     * 通过注入构造器创建组件实例
+     *
+     * @param classLoader
+     * @param args        与构造器参数一一对应的bean
+     * @return
+     * @throws ReflectiveOperationException
+     */
+    public Object newInstance(ClassLoader classLoader, Object[] args) throws ReflectiveOperationException {
+        if (Objects.nonNull(constructor)) {
+            return constructor.resolveConstructor(getType(classLoader)).newInstance(args);
+        }
+        if (Objects.nonNull(factory)) {
+            return factory.get();
+        }
+        return getType(classLoader).newInstance();
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public Supplier<?> getFactory() {
+        return factory;
+    }
+
+    public boolean isController() {
+        return controller;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public boolean isPrototype() {
+        return DevScope.PROTOTYPE.equals(scope);
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    public List<String> getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    public ConstructorDefinition getConstructor() {
+        return constructor;
+    }
+
+    public List<InjectionPoint> getInjectionPoints() {
+        return injectionPoints;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public List<RouteDefinition> getRoutes() {
+        return routes;
+    }
+}
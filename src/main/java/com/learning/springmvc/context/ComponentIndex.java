@@ -0,0 +1,93 @@
+package com.learning.springmvc.context;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 15:20
+ * @description: 编译期生成的组件索引
+ * DevComponentProcessor在编译时把每个组件对应的ComponentProvider类名写入索引文件，
+ * 启动时直接读取索引即可拿到组件定义，不需要遍历文件系统和反射所有类
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ComponentIndex {
+
+    /**
+     * 索引文件位置，每行一个ComponentProvider类名
+     */
+    public static final String INDEX_LOCATION = "META-INF/dev-mvc.components";
+
+    /**
+     * 生成的ComponentProvider类名后缀
+     */
+    public static final String PROVIDER_SUFFIX = "_DevComponent";
+
+    /**
+     * 读取basePackage下的组件定义，classpath中不存在索引文件时返回null
+     *
+     * @param classLoader
+     * @param basePackage
+     * @return
+     */
+    public static List<ComponentDefinition> load(ClassLoader classLoader, String basePackage) {
+        Set<String> providerNames = Sets.newLinkedHashSet();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(INDEX_LOCATION);
+            if (!resources.hasMoreElements()) {
+                return null;
+            }
+            while (resources.hasMoreElements()) {
+                readIndex(resources.nextElement(), providerNames);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("读取组件索引异常", e);
+        }
+
+        String prefix = basePackage + ".";
+        List<ComponentDefinition> definitions = Lists.newArrayList();
+        for (String providerName : providerNames) {
+            if (!providerName.startsWith(prefix)) {
+                continue;
+            }
+            try {
+                ComponentProvider provider = (ComponentProvider) Class.forName(providerName, true, classLoader).newInstance();
+                definitions.add(provider.getDefinition());
+            } catch (ClassNotFoundException e) {
+                // 组件类已删除但索引未重新生成时跳过
+                System.out.println("Component provider not found, skip:" + providerName);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("组件索引加载异常:" + providerName, e);
+            }
+        }
+        return definitions;
+    }
+
+    private static void readIndex(URL url, Set<String> providerNames) throws IOException {
+        try (InputStream inputStream = url.openStream();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (StringUtils.isNotEmpty(line) && !line.startsWith("#")) {
+                    providerNames.add(line);
+                }
+            }
+        }
+    }
+}
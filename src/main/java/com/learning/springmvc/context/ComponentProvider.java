@@ -0,0 +1,17 @@
+package com.learning.springmvc.context;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 15:00
+ * @description: 编译期生成的组件定义提供者，每个@DevController/@DevService类对应一个实现类
+ * 由DevComponentProcessor生成，类名为组件类名加上_DevComponent后缀
+ */
+public interface ComponentProvider {
+
+    /**
+     * 获取组件定义
+     *
+     * @return
+     */
+    ComponentDefinition getDefinition();
+}
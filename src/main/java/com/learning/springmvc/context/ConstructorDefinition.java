@@ -0,0 +1,54 @@
+package com.learning.springmvc.context;
+
+import java.lang.reflect.Constructor;
+
+import org.apache.commons.lang3.ClassUtils;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 04:00
+ * @description: 构造器注入的定义，记录构造器的参数类型以及每个参数要注入的beanName
+ * 参数类型使用Class.getName()的格式保存，与RouteDefinition一致
+ */
+public class ConstructorDefinition {
+
+    private final String[] parameterTypeNames;
+
+    /**
+     * 与参数一一对应，参数上@DevAutowired指定了名称时为该名称，否则为参数类型名
+     */
+    private final String[] beanNames;
+
+    public ConstructorDefinition(String[] parameterTypeNames, String[] beanNames) {
+        this.parameterTypeNames = parameterTypeNames;
+        this.beanNames = beanNames;
+    }
+
+    public String[] getParameterTypeNames() {
+        return parameterTypeNames;
+    }
+
+    public String[] getBeanNames() {
+        return beanNames;
+    }
+
+    /**
+     * 根据参数类型直接获取构造器
+     *
+     * @param clazz
+     * @return
+     */
+    public Constructor<?> resolveConstructor(Class<?> clazz) {
+        try {
+            Class<?>[] parameterTypes = new Class<?>[parameterTypeNames.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                parameterTypes[i] = ClassUtils.getClass(clazz.getClassLoader(), parameterTypeNames[i], false);
+            }
+            Constructor<?> constructor = clazz.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalStateException("注入构造器不存在:" + clazz.getName(), e);
+        }
+    }
+}
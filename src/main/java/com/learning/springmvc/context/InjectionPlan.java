@@ -0,0 +1,157 @@
+package com.learning.springmvc.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 04:30
+ * @description: bean的注入计划，每个bean第一次创建时生成一次
+ * 保存编译好的构造器、属性setter的MethodHandle以及解析后的依赖，之后每次创建都直接执行计划，
+ * 不再查找属性、读取注解或解析别名，prototype bean的创建开销只剩构造器调用和依赖获取
+ */
+final class InjectionPlan {
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final String className;
+
+    /**
+     * 编译期生成的构造器引用，存在时优先使用
+     */
+    private final Supplier<?> factory;
+
+    /**
+     * 参数展开为Object[]的构造器，类型为(Object[])Object
+     */
+    private final MethodHandle constructor;
+
+    private final Dependency[] constructorDependencies;
+
+    /**
+     * 类型为(Object, Object)void的属性setter，与fieldDependencies一一对应
+     */
+    private final MethodHandle[] setters;
+
+    private final Dependency[] fieldDependencies;
+
+    private InjectionPlan(String className, Supplier<?> factory, MethodHandle constructor, Dependency[] constructorDependencies,
+                          MethodHandle[] setters, Dependency[] fieldDependencies) {
+        this.className = className;
+        this.factory = factory;
+        this.constructor = constructor;
+        this.constructorDependencies = constructorDependencies;
+        this.setters = setters;
+        this.fieldDependencies = fieldDependencies;
+    }
+
+    /**
+     * 生成注入计划
+     *
+     * @param definition
+     * @param type                   组件类型
+     * @param instanceType           实例化时使用的类型，需要拦截方法时为代理类，否则与type相同
+     * @param constructorDependencies 与注入构造器参数一一对应，使用无参构造器时为空数组
+     * @param fieldDependencies      与definition中的注入点一一对应
+     * @return
+     */
+    static InjectionPlan create(ComponentDefinition definition, Class<?> type, Class<?> instanceType, Dependency[] constructorDependencies,
+                                Dependency[] fieldDependencies) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            MethodHandle constructor = null;
+            Supplier<?> factory = null;
+            if (Objects.nonNull(definition.getConstructor())) {
+                constructor = lookup.unreflectConstructor(definition.getConstructor().resolveConstructor(instanceType))
+                        .asSpreader(Object[].class, constructorDependencies.length)
+                        .asType(CONSTRUCTOR_TYPE);
+            } else if (Objects.nonNull(definition.getFactory()) && instanceType == type) {
+                // 编译期生成的构造器引用创建的是原始类型，使用代理类时不能使用
+                factory = definition.getFactory();
+            } else {
+                Constructor<?> declared = instanceType.getDeclaredConstructor();
+                declared.setAccessible(true);
+                constructor = MethodHandles.dropArguments(lookup.unreflectConstructor(declared), 0, Object[].class)
+                        .asType(CONSTRUCTOR_TYPE);
+            }
+
+            List<InjectionPoint> injectionPoints = definition.getInjectionPoints();
+            MethodHandle[] setters = new MethodHandle[injectionPoints.size()];
+            for (int i = 0; i < setters.length; i++) {
+                Field field = type.getDeclaredField(injectionPoints.get(i).getFieldName());
+                field.setAccessible(true);
+                setters[i] = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            }
+            return new InjectionPlan(definition.getClassName(), factory, constructor, constructorDependencies, setters, fieldDependencies);
+        } catch (NoSuchMethodException | NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalStateException("无法生成注入计划:" + definition.getClassName(), e);
+        }
+    }
+
+    /**
+     * 获取构造器依赖并创建实例
+     *
+     * @param beanFactory
+     * @return
+     */
+    Object instantiate(BeanFactory beanFactory) {
+        if (Objects.nonNull(factory)) {
+            return factory.get();
+        }
+        Object[] args = new Object[constructorDependencies.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = beanFactory.resolve(constructorDependencies[i]);
+        }
+        try {
+            return (Object) constructor.invokeExact(args);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("bean实例化异常:" + className, e);
+        }
+    }
+
+    /**
+     * 依次注入属性
+     *
+     * @param bean
+     * @param beanFactory
+     */
+    void inject(Object bean, BeanFactory beanFactory) {
+        for (int i = 0; i < setters.length; i++) {
+            Object value = beanFactory.resolve(fieldDependencies[i]);
+            try {
+                setters[i].invokeExact(bean, value);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("自动注入属性异常:" + className, e);
+            }
+        }
+    }
+
+    /**
+     * 解析好的依赖，单例完成初始化后直接保存引用，之后不再查找
+     */
+    static final class Dependency {
+
+        final String beanName;
+
+        final boolean prototype;
+
+        volatile Object singleton;
+
+        Dependency(String beanName, boolean prototype) {
+            this.beanName = beanName;
+            this.prototype = prototype;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.learning.springmvc.context;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 15:00
+ * @description: 依赖注入点，记录@DevAutowired标注的属性名以及要注入的beanName
+ */
+public class InjectionPoint {
+
+    private final String fieldName;
+
+    private final String beanName;
+
+    public InjectionPoint(String fieldName, String beanName) {
+        this.fieldName = fieldName;
+        this.beanName = beanName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+}
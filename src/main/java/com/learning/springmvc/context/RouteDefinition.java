@@ -0,0 +1,59 @@
+package com.learning.springmvc.context;
+
+import java.lang.reflect.Method;
+
+import org.apache.commons.lang3.ClassUtils;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 15:00
+ * @description: 路由定义，记录@DevRequestMapping标注的方法签名和映射值
+ * 参数类型使用Class.getName()的格式保存，便于在编译期生成以及持久化
+ */
+public class RouteDefinition {
+
+    private final String methodName;
+
+    private final String[] parameterTypeNames;
+
+    /**
+     * 方法上@DevRequestMapping的值，不包含Controller上的baseUrl
+     */
+    private final String mapping;
+
+    public RouteDefinition(String methodName, String[] parameterTypeNames, String mapping) {
+        this.methodName = methodName;
+        this.parameterTypeNames = parameterTypeNames;
+        this.mapping = mapping;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public String[] getParameterTypeNames() {
+        return parameterTypeNames;
+    }
+
+    public String getMapping() {
+        return mapping;
+    }
+
+    /**
+     * 根据方法签名直接获取Method，不再遍历Controller的所有方法
+     *
+     * @param clazz
+     * @return
+     */
+    public Method resolveMethod(Class<?> clazz) {
+        try {
+            Class<?>[] parameterTypes = new Class<?>[parameterTypeNames.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                parameterTypes[i] = ClassUtils.getClass(clazz.getClassLoader(), parameterTypeNames[i], false);
+            }
+            return clazz.getMethod(methodName, parameterTypes);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalStateException("路由方法不存在:" + clazz.getName() + "." + methodName, e);
+        }
+    }
+}
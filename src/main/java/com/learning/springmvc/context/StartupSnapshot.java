@@ -0,0 +1,316 @@
+package com.learning.springmvc.context;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 17:10
+ * @description: 启动快照，首次初始化成功后把组件定义写成紧凑的二进制文件
+ * 文件名包含classpath指纹，指纹由扫描包下每个class文件或jar包的路径、大小和修改时间计算得到，
+ * 重新部署相同的包时直接内存映射读取快照重建ioc和HandlerMapping，classpath变化后指纹不同，快照自动失效
+ * 快照中的类名会被加载和实例化，目录必须由应用独占：其他用户可写的目录直接拒绝使用，新建的目录只有所有者可以访问，
+ * 读取时组件类不在扫描包下的快照视为无效
+ */
+public class StartupSnapshot {
+
+    private static final int MAGIC = 0x44564D53;
+
+    private static final int VERSION = 3;
+
+    private static final String SUFFIX = ".snapshot";
+
+    private final Path directory;
+
+    private final String basePackage;
+
+    private final ClassLoader classLoader;
+
+    private String fingerprint;
+
+    public StartupSnapshot(Path directory, String basePackage, ClassLoader classLoader) {
+        this.directory = directory;
+        this.basePackage = basePackage;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 读取与当前classpath匹配的快照，不存在或已损坏时返回null
+     *
+     * @return
+     */
+    public List<ComponentDefinition> load() {
+        checkDirectory();
+        Path file = snapshotFile();
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !fingerprint().equals(readString(buffer))) {
+                return null;
+            }
+            int size = readLength(buffer);
+            List<ComponentDefinition> definitions = Lists.newArrayListWithCapacity(size);
+            String prefix = basePackage + ".";
+            for (int i = 0; i < size; i++) {
+                ComponentDefinition definition = readDefinition(buffer);
+                if (!definition.getClassName().startsWith(prefix)) {
+                    System.out.println("Startup snapshot contains class outside " + basePackage + ", ignore:" + file);
+                    return null;
+                }
+                definitions.add(definition);
+            }
+            return definitions;
+        } catch (IOException | BufferUnderflowException e) {
+            System.out.println("Startup snapshot unreadable, ignore:" + file + " " + e);
+            return null;
+        }
+    }
+
+    /**
+     * 写入快照，先写临时文件再原子替换，同时清理该包下过期的快照
+     *
+     * @param definitions
+     */
+    public void save(Collection<ComponentDefinition> definitions) {
+        Path file = snapshotFile();
+        try {
+            checkDirectory();
+            Path temp = Files.createTempFile(directory, basePackage, ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(temp);
+                 DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                writeString(output, fingerprint());
+                output.writeInt(definitions.size());
+                for (ComponentDefinition definition : definitions) {
+                    writeDefinition(output, definition);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(directory, basePackage + "-*" + SUFFIX)) {
+                for (Path snapshot : snapshots) {
+                    if (!snapshot.equals(file)) {
+                        Files.deleteIfExists(snapshot);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to write startup snapshot:" + file + " " + e);
+        }
+    }
+
+    /**
+     * 目录不存在时创建为只有所有者可以访问，已存在且其他用户可写时拒绝使用
+     */
+    private void checkDirectory() {
+        boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+        try {
+            if (Files.notExists(directory)) {
+                if (posix) {
+                    Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+                } else {
+                    Files.createDirectories(directory);
+                }
+                return;
+            }
+            if (posix) {
+                Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory);
+                if (permissions.contains(PosixFilePermission.OTHERS_WRITE) || permissions.contains(PosixFilePermission.GROUP_WRITE)) {
+                    throw new IllegalStateException("启动快照目录不能被其他用户写入:" + directory);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("启动快照目录不可用:" + directory, e);
+        }
+    }
+
+    private Path snapshotFile() {
+        return directory.resolve(basePackage + "-" + fingerprint() + SUFFIX);
+    }
+
+    /**
+     * 计算扫描包的classpath指纹，只读取文件属性，不读取文件内容
+     *
+     * @return
+     */
+    private String fingerprint() {
+        if (Objects.nonNull(fingerprint)) {
+            return fingerprint;
+        }
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putInt(VERSION).putString(basePackage, StandardCharsets.UTF_8);
+        String path = basePackage.replace('.', '/');
+        try {
+            Enumeration<URL> urls = classLoader.getResources(path);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                hasher.putString(url.toString(), StandardCharsets.UTF_8);
+                if ("file".equals(url.getProtocol())) {
+                    Path root = new File(url.toURI()).toPath();
+                    try (Stream<Path> files = Files.walk(root)) {
+                        files.sorted().forEach(file -> putAttributes(hasher, root.relativize(file).toString(), file));
+                    }
+                    continue;
+                }
+                URLConnection connection = url.openConnection();
+                if (connection instanceof JarURLConnection) {
+                    URL jarUrl = ((JarURLConnection) connection).getJarFileURL();
+                    if ("file".equals(jarUrl.getProtocol())) {
+                        putAttributes(hasher, jarUrl.toString(), new File(jarUrl.toURI()).toPath());
+                    }
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new IllegalStateException("计算classpath指纹异常:" + basePackage, e);
+        }
+        fingerprint = hasher.hash().toString();
+        return fingerprint;
+    }
+
+    private static void putAttributes(Hasher hasher, String name, Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            hasher.putString(name, StandardCharsets.UTF_8)
+                    .putLong(attributes.size())
+                    .putLong(attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            throw new IllegalStateException("读取文件属性异常:" + file, e);
+        }
+    }
+
+    private static void writeDefinition(DataOutputStream output, ComponentDefinition definition) throws IOException {
+        writeString(output, definition.getClassName());
+        output.writeBoolean(definition.isController());
+        writeString(output, definition.getName());
+        writeString(output, definition.getScope());
+        output.writeBoolean(definition.isLazy());
+        output.writeInt(definition.getInterfaceNames().size());
+        for (String interfaceName : definition.getInterfaceNames()) {
+            writeString(output, interfaceName);
+        }
+        ConstructorDefinition constructor = definition.getConstructor();
+        output.writeBoolean(Objects.nonNull(constructor));
+        if (Objects.nonNull(constructor)) {
+            output.writeInt(constructor.getParameterTypeNames().length);
+            for (int i = 0; i < constructor.getParameterTypeNames().length; i++) {
+                writeString(output, constructor.getParameterTypeNames()[i]);
+                writeString(output, constructor.getBeanNames()[i]);
+            }
+        }
+        output.writeInt(definition.getInjectionPoints().size());
+        for (InjectionPoint injectionPoint : definition.getInjectionPoints()) {
+            writeString(output, injectionPoint.getFieldName());
+            writeString(output, injectionPoint.getBeanName());
+        }
+        writeString(output, definition.getBaseUrl());
+        output.writeInt(definition.getRoutes().size());
+        for (RouteDefinition route : definition.getRoutes()) {
+            writeString(output, route.getMethodName());
+            output.writeInt(route.getParameterTypeNames().length);
+            for (String parameterTypeName : route.getParameterTypeNames()) {
+                writeString(output, parameterTypeName);
+            }
+            writeString(output, route.getMapping());
+        }
+    }
+
+    private static ComponentDefinition readDefinition(ByteBuffer buffer) {
+        String className = readString(buffer);
+        boolean controller = buffer.get() != 0;
+        String name = readString(buffer);
+        String scope = readString(buffer);
+        boolean lazy = buffer.get() != 0;
+        int count = readLength(buffer);
+        List<String> interfaceNames = Lists.newArrayListWithCapacity(count);
+        for (int i = 0; i < count; i++) {
+            interfaceNames.add(readString(buffer));
+        }
+        ConstructorDefinition constructor = null;
+        if (buffer.get() != 0) {
+            String[] parameterTypeNames = new String[readLength(buffer)];
+            String[] beanNames = new String[parameterTypeNames.length];
+            for (int i = 0; i < parameterTypeNames.length; i++) {
+                parameterTypeNames[i] = readString(buffer);
+                beanNames[i] = readString(buffer);
+            }
+            constructor = new ConstructorDefinition(parameterTypeNames, beanNames);
+        }
+        count = readLength(buffer);
+        List<InjectionPoint> injectionPoints = Lists.newArrayListWithCapacity(count);
+        for (int i = 0; i < count; i++) {
+            injectionPoints.add(new InjectionPoint(readString(buffer), readString(buffer)));
+        }
+        String baseUrl = readString(buffer);
+        count = readLength(buffer);
+        List<RouteDefinition> routes = Lists.newArrayListWithCapacity(count);
+        for (int i = 0; i < count; i++) {
+            String methodName = readString(buffer);
+            String[] parameterTypeNames = new String[readLength(buffer)];
+            for (int j = 0; j < parameterTypeNames.length; j++) {
+                parameterTypeNames[j] = readString(buffer);
+            }
+            routes.add(new RouteDefinition(methodName, parameterTypeNames, readString(buffer)));
+        }
+        return new ComponentDefinition(className, null, null, controller, name, scope, lazy, interfaceNames, constructor, injectionPoints,
+                baseUrl, routes);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[readLength(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 读取长度或元素个数，每个元素至少占用一个字节，超出剩余字节数说明文件已损坏
+     * 按读取越界处理，避免按损坏的长度分配数组
+     *
+     * @param buffer
+     * @return
+     */
+    private static int readLength(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return length;
+    }
+}
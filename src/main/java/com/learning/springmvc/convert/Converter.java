@@ -0,0 +1,18 @@
+package com.learning.springmvc.convert;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 14:00
+ * @description: 字符串到目标类型的转换器，自定义实现可通过配置文件中的converters注册
+ */
+@FunctionalInterface
+public interface Converter<T> {
+
+    /**
+     * 转换单个字符串值
+     *
+     * @param source 非空字符串
+     * @return
+     */
+    T convert(String source);
+}
@@ -0,0 +1,374 @@
+package com.learning.springmvc.convert;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 14:10
+ * @description: 类型转换器注册中心，策略模式
+ * 在构建HandlerMapping时为每个参数编译一次ParameterConverter，请求时不再判断类型
+ * 内置基本类型及包装类型、枚举、UUID、BigDecimal、日期时间，以及它们的数组和List/Set
+ * 未注册的类型如果有静态valueOf(String)方法或String构造器也可以转换
+ */
+public class ConverterRegistry {
+
+    private static final String SEPARATOR = ",";
+
+    private final Map<Class<?>, Converter<?>> converters = new ConcurrentHashMap<>();
+
+    public ConverterRegistry() {
+        register(String.class, source -> source);
+        register(Integer.class, Integer::valueOf);
+        register(int.class, Integer::valueOf);
+        register(Long.class, Long::valueOf);
+        register(long.class, Long::valueOf);
+        register(Short.class, Short::valueOf);
+        register(short.class, Short::valueOf);
+        register(Byte.class, Byte::valueOf);
+        register(byte.class, Byte::valueOf);
+        register(Double.class, Double::valueOf);
+        register(double.class, Double::valueOf);
+        register(Float.class, Float::valueOf);
+        register(float.class, Float::valueOf);
+        register(Boolean.class, ConverterRegistry::parseBoolean);
+        register(boolean.class, ConverterRegistry::parseBoolean);
+        register(Character.class, ConverterRegistry::parseChar);
+        register(char.class, ConverterRegistry::parseChar);
+        register(BigDecimal.class, BigDecimal::new);
+        register(BigInteger.class, BigInteger::new);
+        register(UUID.class, UUID::fromString);
+        register(LocalDate.class, LocalDate::parse);
+        register(LocalDateTime.class, LocalDateTime::parse);
+        register(LocalTime.class, LocalTime::parse);
+        register(Instant.class, Instant::parse);
+        register(Date.class, ConverterRegistry::parseDate);
+    }
+
+    /**
+     * 注册指定类型的转换器，会覆盖内置转换器
+     *
+     * @param type
+     * @param converter
+     * @param <T>
+     */
+    public <T> void register(Class<T> type, Converter<? extends T> converter) {
+        converters.put(type, converter);
+    }
+
+    /**
+     * 注册自定义转换器，目标类型从Converter的泛型参数中获取
+     *
+     * @param converter
+     */
+    public void register(Converter<?> converter) {
+        for (Class<?> clazz = converter.getClass(); Objects.nonNull(clazz); clazz = clazz.getSuperclass()) {
+            for (Type type : clazz.getGenericInterfaces()) {
+                if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == Converter.class) {
+                    Type target = ((ParameterizedType) type).getActualTypeArguments()[0];
+                    if (target instanceof Class) {
+                        converters.put((Class<?>) target, converter);
+                        return;
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("无法确定转换器的目标类型:" + converter.getClass().getName());
+    }
+
+    /**
+     * 为方法参数编译转换器
+     *
+     * @param type        参数类型
+     * @param genericType 参数的泛型类型，用于确定集合的元素类型
+     * @param name        参数名，用于错误提示
+     * @return
+     */
+    public ParameterConverter compile(Class<?> type, Type genericType, String name) {
+        if (type.isArray()) {
+            Class<?> componentType = type.getComponentType();
+            if (componentType.isPrimitive()) {
+                return primitiveArray(componentType, name);
+            }
+            Converter<?> converter = lookup(componentType);
+            return values -> {
+                if (Objects.isNull(values)) {
+                    return null;
+                }
+                String[] items = expand(values);
+                Object array = Array.newInstance(componentType, items.length);
+                Object[] objects = (Object[]) array;
+                for (int i = 0; i < items.length; i++) {
+                    objects[i] = convertItem(converter, items[i], name);
+                }
+                return array;
+            };
+        }
+        if (type == List.class || type == Collection.class || type == Set.class) {
+            Converter<?> converter = lookup(elementType(genericType));
+            boolean set = type == Set.class;
+            return values -> {
+                if (Objects.isNull(values)) {
+                    return null;
+                }
+                String[] items = expand(values);
+                Collection<Object> collection = set ? new LinkedHashSet<>(items.length * 2) : new ArrayList<>(items.length);
+                for (String item : items) {
+                    collection.add(convertItem(converter, item, name));
+                }
+                return collection;
+            };
+        }
+        if (type == String.class) {
+            // 字符串参数出现多个值时按逗号拼接
+            return values -> {
+                if (Objects.isNull(values) || values.length == 0) {
+                    return null;
+                }
+                return values.length == 1 ? values[0] : String.join(SEPARATOR, values);
+            };
+        }
+
+        Converter<?> converter = lookup(type);
+        boolean primitive = type.isPrimitive();
+        return values -> {
+            if (Objects.isNull(values) || values.length == 0 || StringUtils.isBlank(values[0])) {
+                if (primitive) {
+                    throw new IllegalArgumentException("缺少基本类型参数:" + name);
+                }
+                return null;
+            }
+            return convertItem(converter, values[0], name);
+        };
+    }
+
+    /**
+     * 获取单值转换器，枚举和带有valueOf(String)方法的类型在第一次使用时生成并缓存
+     *
+     * @param type
+     * @return
+     */
+    private Converter<?> lookup(Class<?> type) {
+        Converter<?> converter = converters.get(type);
+        if (Objects.nonNull(converter)) {
+            return converter;
+        }
+        return converters.computeIfAbsent(type, ConverterRegistry::createConverter);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Converter<?> createConverter(Class<?> type) {
+        if (type.isEnum()) {
+            Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            return source -> Enum.valueOf(enumType, source);
+        }
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodHandle handle;
+        try {
+            handle = lookup.findStatic(type, "valueOf", MethodType.methodType(type, String.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            try {
+                if (Modifier.isAbstract(type.getModifiers())) {
+                    throw new IllegalStateException("不支持的参数类型:" + type.getName());
+                }
+                handle = lookup.findConstructor(type, MethodType.methodType(void.class, String.class));
+            } catch (NoSuchMethodException | IllegalAccessException ex) {
+                throw new IllegalStateException("不支持的参数类型:" + type.getName(), ex);
+            }
+        }
+        MethodHandle factory = handle.asType(MethodType.methodType(Object.class, String.class));
+        return source -> {
+            try {
+                return factory.invokeExact(source);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalArgumentException(e);
+            }
+        };
+    }
+
+    private static Object convertItem(Converter<?> converter, String value, String name) {
+        try {
+            return converter.convert(value.trim());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("参数" + name + "转换失败:" + value, e);
+        }
+    }
+
+    /**
+     * 基本类型数组直接解析到数组中，不经过包装类型
+     *
+     * @param componentType
+     * @param name
+     * @return
+     */
+    private static ParameterConverter primitiveArray(Class<?> componentType, String name) {
+        ParameterConverter converter;
+        if (componentType == int.class) {
+            converter = values -> {
+                int[] array = new int[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    array[i] = Integer.parseInt(values[i].trim());
+                }
+                return array;
+            };
+        } else if (componentType == long.class) {
+            converter = values -> {
+                long[] array = new long[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    array[i] = Long.parseLong(values[i].trim());
+                }
+                return array;
+            };
+        } else if (componentType == double.class) {
+            converter = values -> {
+                double[] array = new double[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    array[i] = Double.parseDouble(values[i].trim());
+                }
+                return array;
+            };
+        } else if (componentType == float.class) {
+            converter = values -> {
+                float[] array = new float[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    array[i] = Float.parseFloat(values[i].trim());
+                }
+                return array;
+            };
+        } else if (componentType == short.class) {
+            converter = values -> {
+                short[] array = new short[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    array[i] = Short.parseShort(values[i].trim());
+                }
+                return array;
+            };
+        } else if (componentType == byte.class) {
+            converter = values -> {
+                byte[] array = new byte[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    array[i] = Byte.parseByte(values[i].trim());
+                }
+                return array;
+            };
+        } else if (componentType == boolean.class) {
+            converter = values -> {
+                boolean[] array = new boolean[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    array[i] = parseBoolean(values[i].trim());
+                }
+                return array;
+            };
+        } else {
+            converter = values -> {
+                char[] array = new char[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    array[i] = parseChar(values[i].trim());
+                }
+                return array;
+            };
+        }
+        return values -> {
+            if (Objects.isNull(values)) {
+                return null;
+            }
+            try {
+                return converter.convert(expand(values));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("参数" + name + "转换失败:" + String.join(SEPARATOR, values), e);
+            }
+        };
+    }
+
+    /**
+     * 只有一个值且包含逗号时按逗号拆分，支持ids=1,2,3的写法
+     *
+     * @param values
+     * @return
+     */
+    private static String[] expand(String[] values) {
+        if (values.length == 1 && values[0].indexOf(',') >= 0) {
+            return StringUtils.split(values[0], ',');
+        }
+        return values;
+    }
+
+    private static Class<?> elementType(Type genericType) {
+        if (genericType instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (argument instanceof Class) {
+                return (Class<?>) argument;
+            }
+        }
+        return String.class;
+    }
+
+    private static boolean parseBoolean(String source) {
+        switch (source.toLowerCase()) {
+            case "true":
+            case "on":
+            case "yes":
+            case "1":
+                return true;
+            case "false":
+            case "off":
+            case "no":
+            case "0":
+                return false;
+            default:
+                throw new IllegalArgumentException("无法转换为boolean:" + source);
+        }
+    }
+
+    private static char parseChar(String source) {
+        if (source.length() != 1) {
+            throw new IllegalArgumentException("无法转换为char:" + source);
+        }
+        return source.charAt(0);
+    }
+
+    /**
+     * 支持毫秒时间戳、ISO格式的时间点、日期和日期时间
+     *
+     * @param source
+     * @return
+     */
+    private static Date parseDate(String source) {
+        if (StringUtils.isNumeric(source)) {
+            return new Date(Long.parseLong(source));
+        }
+        if (source.endsWith("Z")) {
+            return Date.from(Instant.parse(source));
+        }
+        if (source.indexOf('T') > 0) {
+            return Date.from(LocalDateTime.parse(source).atZone(ZoneId.systemDefault()).toInstant());
+        }
+        return Date.from(LocalDate.parse(source).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
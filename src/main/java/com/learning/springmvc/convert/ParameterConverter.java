@@ -0,0 +1,19 @@
+package com.learning.springmvc.convert;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 14:00
+ * @description: 针对某个方法参数编译好的转换器，在构建HandlerMapping时由ConverterRegistry生成
+ * 直接接收请求中的多值数组，数组、集合参数不再经过逗号拼接
+ */
+@FunctionalInterface
+public interface ParameterConverter {
+
+    /**
+     * 转换参数值
+     *
+     * @param values 请求中的参数值，参数不存在时为null
+     * @return
+     */
+    Object convert(String[] values);
+}
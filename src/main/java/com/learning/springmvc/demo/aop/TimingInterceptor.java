@@ -0,0 +1,33 @@
+package com.learning.springmvc.demo.aop;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import com.learning.springmvc.annotation.DevService;
+import com.learning.springmvc.aop.MethodInterceptor;
+import com.learning.springmvc.aop.MethodInvocation;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 05:00
+ * @description: 方法拦截器示例，统计@DevService中业务方法的耗时
+ * 每次调用都会输出一行日志，默认不注册，需要时在配置文件的interceptors中开启
+ */
+public class TimingInterceptor implements MethodInterceptor {
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return targetClass.isAnnotationPresent(DevService.class) && method.getDeclaringClass() != Object.class;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            System.out.println("Invoke:" + invocation.getMethod().getDeclaringClass().getSimpleName() + "." + invocation.getMethod().getName()
+                    + " cost " + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) + "us");
+        }
+    }
+}
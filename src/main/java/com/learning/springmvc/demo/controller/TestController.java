@@ -1,15 +1,27 @@
 package com.learning.springmvc.demo.controller;
 
 import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import com.learning.springmvc.annotation.DevAutowired;
+import com.learning.springmvc.annotation.DevCacheable;
 import com.learning.springmvc.annotation.DevController;
+import com.learning.springmvc.annotation.DevOffload;
+import com.learning.springmvc.annotation.DevPathVariable;
+import com.learning.springmvc.annotation.DevRequestBody;
 import com.learning.springmvc.annotation.DevRequestMapping;
 import com.learning.springmvc.annotation.DevRequestParam;
+import com.learning.springmvc.annotation.RequestMethod;
+import com.learning.springmvc.demo.model.UserInfo;
 import com.learning.springmvc.demo.service.TestService;
+import com.learning.springmvc.demo.service.UserService;
+import com.learning.springmvc.http.EncodedBody;
 
 /**
  * @author: dengxin.chen
@@ -20,9 +32,18 @@ import com.learning.springmvc.demo.service.TestService;
 @DevRequestMapping("/test")
 public class TestController {
 
+    /**
+     * 固定内容的响应只编码一次
+     */
+    private static final EncodedBody PONG = EncodedBody.text("pong");
+
     @DevAutowired
     private TestService testService;
 
+    @DevAutowired
+    private UserService userService;
+
+    @DevOffload
     @DevRequestMapping("/add")
     public String add(@DevRequestParam("name") String name) {
         String result = testService.testMethod();
@@ -38,6 +59,56 @@ public class TestController {
         System.out.println("delete method invoke");
     }
 
+    @DevRequestMapping("/async")
+    public CompletableFuture<String> async(@DevRequestParam("name") String name) {
+        // 在其他线程中执行，容器线程在返回后即被释放
+        return CompletableFuture.supplyAsync(() -> testService.testMethod() + " async:" + name);
+    }
+
+    @DevRequestMapping("/ping")
+    public EncodedBody ping() {
+        return PONG;
+    }
+
+    @DevRequestMapping("/stream")
+    public Stream<String> stream(@DevRequestParam("count") Integer count) {
+        // 按需生成，输出流可写时才拉取下一行
+        return IntStream.range(0, Objects.isNull(count) ? 10 : count).mapToObj(i -> "line " + i + "\n");
+    }
+
+    @DevCacheable(ttl = 10)
+    @DevRequestMapping(value = "/user", method = RequestMethod.GET)
+    public UserInfo user(@DevRequestParam("name") String name) {
+        // 返回对象时序列化为json，10秒内相同name的GET请求直接使用缓存
+        return userService.loadUser(name);
+    }
+
+    @DevRequestMapping(value = "/user", method = RequestMethod.PUT)
+    public UserInfo updateUser(@DevRequestBody UserInfo userInfo) {
+        // 同一路径的PUT请求映射到单独的handler
+        System.out.println("update user:" + userInfo.getName());
+        return userInfo;
+    }
+
+    @DevCacheable(ttl = 10)
+    @DevRequestMapping(value = "/users/{id}/tags/{index}", method = RequestMethod.GET)
+    public String userTag(@DevPathVariable("id") long id, @DevPathVariable("index") int index) {
+        // url中的变量按下标提取后直接转换为参数类型
+        return "user " + id + " tag " + index;
+    }
+
+    @DevRequestMapping(value = "/users/{userId}/tags/{position}", method = RequestMethod.PUT)
+    public String updateUserTag(@DevPathVariable("userId") long userId, @DevPathVariable("position") int position,
+                                @DevRequestParam("tag") String tag) {
+        // 与GET的模板形状相同、变量名不同，归为同一路径，按各自的模板提取变量
+        return "user " + userId + " tag " + position + " = " + tag;
+    }
+
+    @DevRequestMapping(value = "/echo", method = RequestMethod.POST)
+    public UserInfo echo(@DevRequestBody UserInfo userInfo) {
+        return userInfo;
+    }
+
     @DevRequestMapping("/sub")
     public void sub(HttpServletResponse response, @DevRequestParam("a") Integer a, @DevRequestParam("b") Integer b) {
         try {
@@ -0,0 +1,40 @@
+package com.learning.springmvc.demo.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.learning.springmvc.http.HandlerInterceptor;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 05:30
+ * @description: handler拦截器示例，为响应添加请求编号，请求完成后输出访问日志
+ * 每个请求都会输出一行日志，默认不注册，需要时在配置文件的handlerInterceptors中开启
+ */
+public class AccessLogInterceptor implements HandlerInterceptor {
+
+    private static final String REQUEST_ID = "X-Request-Id";
+
+    private static final String START_ATTRIBUTE = AccessLogInterceptor.class.getName() + ".start";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    public boolean preHandle(HttpServletRequest req, HttpServletResponse resp, Method handler) {
+        req.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        resp.setHeader(REQUEST_ID, String.valueOf(sequence.incrementAndGet()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest req, HttpServletResponse resp, Method handler, Throwable error) {
+        long cost = System.nanoTime() - (Long) req.getAttribute(START_ATTRIBUTE);
+        System.out.println("Access:" + req.getMethod() + " " + req.getRequestURI() + " " + resp.getStatus() + " "
+                + TimeUnit.NANOSECONDS.toMicros(cost) + "us handler " + handler.getName() + (Objects.isNull(error) ? "" : " error " + error));
+    }
+}
@@ -0,0 +1,20 @@
+package com.learning.springmvc.demo.model;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 02:05
+ * @description: json请求体和返回值示例
+ */
+@Data
+public class UserInfo {
+
+    private Long id;
+
+    private String name;
+
+    private List<String> tags;
+}
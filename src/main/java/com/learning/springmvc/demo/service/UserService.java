@@ -0,0 +1,13 @@
+package com.learning.springmvc.demo.service;
+
+import com.learning.springmvc.demo.model.UserInfo;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 04:00
+ * @description: 用户查询示例
+ */
+public interface UserService {
+
+    UserInfo loadUser(String name);
+}
@@ -0,0 +1,35 @@
+package com.learning.springmvc.demo.service.impl;
+
+import java.util.Arrays;
+
+import com.learning.springmvc.annotation.DevAutowired;
+import com.learning.springmvc.annotation.DevService;
+import com.learning.springmvc.demo.model.UserInfo;
+import com.learning.springmvc.demo.service.TestService;
+import com.learning.springmvc.demo.service.UserService;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 04:00
+ * @description: 构造器注入示例，容器在TestService创建完成后才创建该bean
+ */
+@DevService
+public class UserServiceImpl implements UserService {
+
+    private final TestService testService;
+
+    @DevAutowired
+    public UserServiceImpl(TestService testService) {
+        this.testService = testService;
+    }
+
+    @Override
+    public UserInfo loadUser(String name) {
+        System.out.println("load user:" + name + " " + testService.testMethod());
+        UserInfo userInfo = new UserInfo();
+        userInfo.setId(1L);
+        userInfo.setName(name);
+        userInfo.setTags(Arrays.asList("dev", "mvc"));
+        return userInfo;
+    }
+}
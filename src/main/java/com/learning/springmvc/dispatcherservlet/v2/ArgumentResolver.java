@@ -0,0 +1,196 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.io.CharStreams;
+import com.learning.springmvc.annotation.DevPathVariable;
+import com.learning.springmvc.annotation.DevRequestBody;
+import com.learning.springmvc.annotation.DevRequestParam;
+import com.learning.springmvc.convert.ConverterRegistry;
+import com.learning.springmvc.convert.ParameterConverter;
+import com.learning.springmvc.http.RequestBindingException;
+import com.learning.springmvc.json.JsonDeserializer;
+import com.learning.springmvc.json.JsonMapper;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 13:10
+ * @description: 参数解析器，每个handler方法的参数在初始化时确定一个解析器
+ * 请求时按下标依次调用，只处理方法声明过的参数，与请求中其他参数无关
+ */
+interface ArgumentResolver {
+
+    /**
+     * 没有可注入内容的参数统一传null
+     */
+    ArgumentResolver NULL = (req, resp) -> null;
+
+    ArgumentResolver REQUEST = (req, resp) -> req;
+
+    ArgumentResolver RESPONSE = (req, resp) -> resp;
+
+    /**
+     * 解析参数值
+     *
+     * @param req
+     * @param resp
+     * @return
+     * @throws Exception
+     */
+    Object resolve(HttpServletRequest req, HttpServletResponse resp) throws Exception;
+
+    /**
+     * 根据方法参数的类型和注解选择解析器
+     *
+     * @param method
+     * @param index
+     * @param pathTemplate      映射的url模板，不是模板时为null
+     * @param converterRegistry
+     * @param jsonMapper
+     * @return
+     */
+    static ArgumentResolver forParameter(Method method, int index, PathTemplate pathTemplate, ConverterRegistry converterRegistry,
+                                         JsonMapper jsonMapper) {
+        Class<?> type = method.getParameterTypes()[index];
+        // 提取方法中的Request和Response
+        if (type == HttpServletRequest.class) {
+            return REQUEST;
+        }
+        if (type == HttpServletResponse.class) {
+            return RESPONSE;
+        }
+        for (Annotation annotation : method.getParameterAnnotations()[index]) {
+            if (annotation instanceof DevPathVariable) {
+                String name = ((DevPathVariable) annotation).value();
+                int variableIndex = Objects.isNull(pathTemplate) ? -1 : pathTemplate.indexOf(name);
+                if (variableIndex < 0) {
+                    throw new IllegalStateException("url模板中不存在变量" + name + ":" + method);
+                }
+                return new PathVariableResolver(variableIndex,
+                        converterRegistry.compile(type, method.getGenericParameterTypes()[index], name));
+            }
+            if (annotation instanceof DevRequestBody) {
+                return new RequestBodyResolver(((DevRequestBody) annotation).required(),
+                        jsonMapper.deserializerFor(method.getGenericParameterTypes()[index]), jsonMapper);
+            }
+            if (annotation instanceof DevRequestParam) {
+                String paramName = ((DevRequestParam) annotation).value();
+                if (StringUtils.isNotEmpty(paramName)) {
+                    return new RequestParamResolver(paramName,
+                            converterRegistry.compile(type, method.getGenericParameterTypes()[index], paramName));
+                }
+            }
+        }
+        return NULL;
+    }
+
+    /**
+     * 解析@DevRequestParam标注的请求参数
+     */
+    class RequestParamResolver implements ArgumentResolver {
+
+        private final String name;
+
+        /**
+         * 初始化时按参数类型编译好的转换器
+         */
+        private final ParameterConverter converter;
+
+        RequestParamResolver(String name, ParameterConverter converter) {
+            this.name = name;
+            this.converter = converter;
+        }
+
+        @Override
+        public Object resolve(HttpServletRequest req, HttpServletResponse resp) {
+            try {
+                return converter.convert(req.getParameterValues(name));
+            } catch (RuntimeException e) {
+                throw new RequestBindingException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 解析@DevPathVariable标注的url模板变量，变量值由分发时按下标提取后放在request属性中
+     */
+    class PathVariableResolver implements ArgumentResolver {
+
+        private final int index;
+
+        private final ParameterConverter converter;
+
+        PathVariableResolver(int index, ParameterConverter converter) {
+            this.index = index;
+            this.converter = converter;
+        }
+
+        @Override
+        public Object resolve(HttpServletRequest req, HttpServletResponse resp) {
+            String[] values = (String[]) req.getAttribute(PathTemplate.VARIABLES_ATTRIBUTE);
+            try {
+                return converter.convert(Objects.isNull(values) ? null : new String[]{values[index]});
+            } catch (RuntimeException e) {
+                throw new RequestBindingException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 解析@DevRequestBody标注的json请求体
+     */
+    class RequestBodyResolver implements ArgumentResolver {
+
+        private final boolean required;
+
+        /**
+         * 初始化时按参数的泛型类型生成的反序列化器
+         */
+        private final JsonDeserializer deserializer;
+
+        private final JsonMapper jsonMapper;
+
+        RequestBodyResolver(boolean required, JsonDeserializer deserializer, JsonMapper jsonMapper) {
+            this.required = required;
+            this.deserializer = deserializer;
+            this.jsonMapper = jsonMapper;
+        }
+
+        @Override
+        public Object resolve(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            if (req.getContentLength() == 0) {
+                return missing();
+            }
+            String encoding = req.getCharacterEncoding();
+            Charset charset = Objects.isNull(encoding) ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            // 分块传输的请求没有Content-Length，只能读取后再判断是否为空
+            String body = CharStreams.toString(new InputStreamReader(req.getInputStream(), charset));
+            if (StringUtils.isBlank(body)) {
+                return missing();
+            }
+            try {
+                return jsonMapper.read(body, deserializer);
+            } catch (RuntimeException e) {
+                throw new RequestBindingException("请求体绑定失败:" + e.getMessage(), e);
+            }
+        }
+
+        private Object missing() {
+            if (required) {
+                throw new RequestBindingException("缺少请求体");
+            }
+            return null;
+        }
+    }
+}
@@ -1,20 +1,29 @@
 package com.learning.springmvc.dispatcherservlet.v2;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -22,18 +31,29 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 
-import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.learning.springmvc.annotation.DevAutowired;
 import com.learning.springmvc.annotation.DevController;
 import com.learning.springmvc.annotation.DevRequestMapping;
-import com.learning.springmvc.annotation.DevRequestParam;
 import com.learning.springmvc.annotation.DevService;
-import com.learning.springmvc.util.CommonUtils;
+import com.learning.springmvc.annotation.RequestMethod;
+import com.learning.springmvc.aop.MethodInterceptor;
+import com.learning.springmvc.aop.ProxyFactory;
+import com.learning.springmvc.context.BeanFactory;
+import com.learning.springmvc.context.ClassPathScanner;
+import com.learning.springmvc.context.ComponentDefinition;
+import com.learning.springmvc.context.ComponentIndex;
+import com.learning.springmvc.context.RouteDefinition;
+import com.learning.springmvc.context.StartupSnapshot;
+import com.learning.springmvc.convert.Converter;
+import com.learning.springmvc.convert.ConverterRegistry;
+import com.learning.springmvc.http.ChunkSource;
+import com.learning.springmvc.http.EncodedBody;
+import com.learning.springmvc.http.HandlerInterceptor;
+import com.learning.springmvc.http.RequestBindingException;
+import com.learning.springmvc.json.JsonMapper;
 
 /**
  * @author: dengxin.chen
@@ -44,11 +64,118 @@ public class DevDispatcherServlet extends HttpServlet {
 
     private static final String LOCATION = "contextConfigLocation";
 
+    private static final String HTTP_GET = "GET";
+
+    private static final String HTTP_HEAD = "HEAD";
+
+    private static final String HTTP_PATCH = "PATCH";
+
+    private static final String ALLOW = "Allow";
+
+    /**
+     * 连续的多个"/"，预先编译，只在url中出现"//"时才使用
+     */
+    private static final Pattern MULTIPLE_SLASHES = Pattern.compile("/+");
+
+    /**
+     * 固定的404响应，只编码一次
+     */
+    private static final EncodedBody NOT_FOUND = EncodedBody.text("404 Not Found");
+
+    private static final EncodedBody METHOD_NOT_ALLOWED = EncodedBody.text("405 Method Not Allowed");
+
     /**
      * 扫描基础包，类似在spring-mvc.xml中配置的具体扫描哪些包
      */
     private static final String SCANNER_BASEPACKAGE = "scanPackage";
 
+    /**
+     * 正则路由匹配结果缓存的最大条数
+     */
+    private static final String ROUTE_CACHE_SIZE = "routeCacheSize";
+
+    private static final String DEFAULT_ROUTE_CACHE_SIZE = "1024";
+
+    /**
+     * 自定义类型转换器，多个类名用逗号分隔
+     */
+    private static final String CONVERTERS = "converters";
+
+    /**
+     * 是否启用启动快照，默认关闭；启用时必须配置应用独占的快照目录，不能使用共享的临时目录
+     */
+    private static final String SNAPSHOT_ENABLED = "snapshotEnabled";
+
+    private static final String SNAPSHOT_DIR = "snapshotDir";
+
+    /**
+     * 启动时并行创建单例的线程数，默认为CPU核数
+     */
+    private static final String BEAN_INIT_PARALLELISM = "beanInitParallelism";
+
+    /**
+     * 配置文件中自定义方法拦截器的key，多个类名用逗号分隔，按配置顺序组成调用链
+     */
+    private static final String INTERCEPTORS = "interceptors";
+
+    /**
+     * 配置文件中handler拦截器的key，多个类名用逗号分隔，按配置顺序执行preHandle
+     * 生效的路由通过handlerInterceptorIncludes.类名和handlerInterceptorExcludes.类名配置，多个模式用逗号分隔
+     */
+    private static final String HANDLER_INTERCEPTORS = "handlerInterceptors";
+
+    private static final String HANDLER_INTERCEPTOR_INCLUDES_PREFIX = "handlerInterceptorIncludes.";
+
+    private static final String HANDLER_INTERCEPTOR_EXCLUDES_PREFIX = "handlerInterceptorExcludes.";
+
+    /**
+     * 异步请求的超时时间(毫秒)以及超时后返回的状态码
+     */
+    private static final String ASYNC_TIMEOUT = "asyncTimeout";
+
+    private static final String ASYNC_TIMEOUT_STATUS = "asyncTimeoutStatus";
+
+    /**
+     * 流式响应的超时时间(毫秒)，0表示不超时
+     */
+    private static final String STREAM_TIMEOUT = "streamTimeout";
+
+    /**
+     * 异常与状态码的映射，例如errorStatus.java.lang.IllegalArgumentException=400
+     */
+    private static final String ERROR_STATUS_PREFIX = "errorStatus.";
+
+    /**
+     * offload执行器配置，类型为pool或virtual，以及pool模式的线程数、队列长度和拒绝时返回的状态码
+     */
+    private static final String OFFLOAD_EXECUTOR = "offloadExecutor";
+
+    private static final String OFFLOAD_THREADS = "offloadThreads";
+
+    private static final String OFFLOAD_QUEUE_SIZE = "offloadQueueSize";
+
+    private static final String OFFLOAD_REJECT_STATUS = "offloadRejectStatus";
+
+    /**
+     * 是否启用/__metrics指标端点，默认关闭
+     */
+    private static final String METRICS_ENABLED = "metricsEnabled";
+
+    /**
+     * 请求追踪的采样率，以及每段缓冲区大小和/__trace默认输出的最慢请求数
+     * 默认为0，不采样也不注册/__trace端点
+     */
+    private static final String TRACE_SAMPLE_RATE = "traceSampleRate";
+
+    private static final String TRACE_BUFFER_SIZE = "traceBufferSize";
+
+    private static final String TRACE_SLOWEST = "traceSlowest";
+
+    /**
+     * 响应缓存的最大权重(响应体字节数)
+     */
+    private static final String RESPONSE_CACHE_MAX_WEIGHT = "responseCacheMaxWeight";
+
     /**
      * 保存配置文件中的键值对
      */
@@ -60,27 +187,191 @@ public class DevDispatcherServlet extends HttpServlet {
     private List<String> classNames = Lists.newArrayList();
 
     /**
-     * 存储所有实例化对象
+     * 组件定义，className -> 定义
+     */
+    private Map<String, ComponentDefinition> componentDefinitions = Maps.newLinkedHashMap();
+
+    /**
+     * 启动快照，未启用时为null
+     */
+    private StartupSnapshot startupSnapshot;
+
+    /**
+     * 组件定义是否来自启动快照
+     */
+    private boolean fromSnapshot;
+
+    private long asyncTimeout;
+
+    private int asyncTimeoutStatus;
+
+    private EncodedBody asyncTimeoutBody;
+
+    private long streamTimeout;
+
+    /**
+     * 异常类型 -> 响应状态码
      */
-    private Map<String, Object> ioc = Maps.newHashMap();
+    private Map<Class<?>, Integer> errorStatusMapping = Maps.newHashMap();
+
+    /**
+     * 执行@DevOffload handler的执行器
+     */
+    private OffloadExecutor offloadExecutor;
+
+    private int offloadRejectStatus;
+
+    private EncodedBody offloadRejectBody;
 
     /**
-     * handlerMapping集合
+     * 已注册的HandlerMapping，按注册顺序输出指标
      */
     private List<HandlerMapping> handlerMappings = Lists.newArrayList();
 
+    /**
+     * 没有匹配到路由的请求数
+     */
+    private LongAdder unmatchedRequests = new LongAdder();
+
+    /**
+     * 标注了@DevCacheable的handler的响应缓存，没有这类handler时为null
+     */
+    private ResponseCache responseCache;
+
+    /**
+     * 配置的handler拦截器，内置端点注册时同样按路由模式筛选
+     */
+    private List<MappedInterceptor> mappedInterceptors;
+
+    /**
+     * 请求追踪，未启用时为null
+     */
+    private DispatchTracer tracer;
+
+    /**
+     * bean容器，保存组件定义和单例，依赖在bean创建时注入
+     */
+    private BeanFactory beanFactory;
+
+    /**
+     * handlerMapping路由索引，路径 -> 按请求方法区分的handler
+     */
+    private RouteIndex<MethodRoutes> routeIndex;
+
+    /**
+     * 请求参数类型转换器
+     */
+    private ConverterRegistry converterRegistry = new ConverterRegistry();
+
+    /**
+     * 返回值和请求体的json转换，标量值复用上面的类型转换器
+     */
+    private JsonMapper jsonMapper;
+
+    @Override
+    protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        // HttpServlet没有处理PATCH
+        if (HTTP_PATCH.equals(req.getMethod())) {
+            processRequest(req, resp, RequestMethod.PATCH);
+            return;
+        }
+        super.service(req, resp);
+    }
+
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-        doPost(req, resp);
+        processRequest(req, resp, RequestMethod.GET);
+    }
+
+    /**
+     * HEAD请求执行GET的handler，只按返回值类型设置响应头，不序列化返回值也不写出响应体
+     * 需要序列化的返回值没有Content-Length，带有@DevCacheable的路由复用缓存中已编码的响应体，同时返回Content-Length和ETag
+     */
+    @Override
+    protected void doHead(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        processRequest(req, resp, RequestMethod.HEAD);
     }
 
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        processRequest(req, resp, RequestMethod.POST);
+    }
+
+    @Override
+    protected void doPut(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        processRequest(req, resp, RequestMethod.PUT);
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        processRequest(req, resp, RequestMethod.DELETE);
+    }
+
+    /**
+     * 没有单独映射OPTIONS的路径直接返回Allow头
+     */
+    @Override
+    protected void doOptions(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        processRequest(req, resp, RequestMethod.OPTIONS);
+    }
+
+    private void processRequest(HttpServletRequest req, HttpServletResponse resp, RequestMethod requestMethod) throws IOException {
+        String uri = req.getRequestURI();
+        String url = normalize(uri);
+
+        // 未启用追踪或未命中采样时为Trace.NONE，各阶段标记直接返回
+        DispatchTracer.Trace trace = Objects.isNull(tracer) ? DispatchTracer.Trace.NONE : tracer.start(url);
+        MethodRoutes methodRoutes = filterHandlerMapping(url);
+        HandlerMapping handlerMapping = Objects.isNull(methodRoutes) ? null : methodRoutes.get(requestMethod);
+        trace.mark(DispatchTracer.ROUTE);
+        if (Objects.isNull(handlerMapping)) {
+            if (Objects.isNull(methodRoutes)) {
+                unmatchedRequests.increment();
+                resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                NOT_FOUND.writeTo(resp);
+            } else if (requestMethod == RequestMethod.OPTIONS) {
+                resp.setHeader(ALLOW, methodRoutes.getAllow());
+                resp.setContentLength(0);
+            } else {
+                // 路径存在但不支持该请求方法
+                unmatchedRequests.increment();
+                resp.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+                resp.setHeader(ALLOW, methodRoutes.getAllow());
+                METHOD_NOT_ALLOWED.writeTo(resp);
+            }
+            trace.mark(DispatchTracer.WRITE);
+            trace.finish(resp.getStatus());
+            return;
+        }
+
+        if (Objects.nonNull(handlerMapping.pathTemplate)) {
+            // 模板变量只提取一次，参数解析器按下标读取
+            req.setAttribute(PathTemplate.VARIABLES_ATTRIBUTE, handlerMapping.pathTemplate.extract(url));
+        }
+
+        long start = handlerMapping.metrics.begin();
+        boolean async = false;
+        boolean preHandled = false;
+        Exception error = null;
         try {
-            doDispatch(req, resp);
+            // 拦截器返回false时由拦截器自己写出响应
+            if (handlerMapping.applyPreHandle(req, resp)) {
+                preHandled = true;
+                async = doDispatch(req, resp, handlerMapping, start, trace);
+            }
         } catch (Exception e) {
-            e.printStackTrace();
-            resp.getWriter().write("500 Exception Detail:" + Arrays.toString(e.getStackTrace()));
+            error = e;
+            handleException(resp, e);
+            trace.mark(DispatchTracer.WRITE);
+        } finally {
+            // 异步请求在AsyncContext完成时记录
+            if (!async) {
+                if (preHandled) {
+                    handlerMapping.triggerAfterCompletion(req, resp, error);
+                }
+                handlerMapping.metrics.end(start, resp.getStatus());
+                trace.finish(resp.getStatus());
+            }
         }
     }
 
@@ -99,21 +390,50 @@ public class DevDispatcherServlet extends HttpServlet {
         // 1.加载配置文件
         doLoadConfig(config.getInitParameter(LOCATION));
 
-        // 2.扫描所有相关类
-        doScanner(properties.getProperty(SCANNER_BASEPACKAGE));
+        // 2.加载组件定义，优先读取编译期生成的组件索引，不存在时再扫描所有相关类
+        doLoadComponents(properties.getProperty(SCANNER_BASEPACKAGE));
 
-        // 3.初始化相关类，并存储到ioc容器中
+        // 3.注册组件定义并创建非延迟加载的单例，依赖在创建时注入
         doInstance();
 
-        // 4.依赖注入，这里就是注入Controller的service等对象
-        doAutoWired();
-
         // 5.构造HandlerMapping
         initHandlerMapping();
 
+        // 异步请求的超时、异常状态码和offload执行器配置
+        initAsyncSupport();
+
+        if (handlerMappings.stream().anyMatch(handlerMapping -> handlerMapping.cacheTtl > 0)) {
+            responseCache = new ResponseCache(Long.parseLong(properties.getProperty(RESPONSE_CACHE_MAX_WEIGHT, String.valueOf(16 * 1024 * 1024))),
+                    jsonMapper);
+        }
+
+        // 内置的指标端点，作为普通路由注册
+        if (Boolean.parseBoolean(properties.getProperty(METRICS_ENABLED, "false"))) {
+            registerEndpoint(MetricsEndpoint.PATH, new MetricsEndpoint(handlerMappings, routeIndex, offloadExecutor, responseCache,
+                    unmatchedRequests));
+        }
+        double sampleRate = Double.parseDouble(properties.getProperty(TRACE_SAMPLE_RATE, "0"));
+        if (sampleRate > 0) {
+            tracer = new DispatchTracer(sampleRate, Integer.parseInt(properties.getProperty(TRACE_BUFFER_SIZE, "256")),
+                    Integer.parseInt(properties.getProperty(TRACE_SLOWEST, "20")));
+            registerEndpoint(DispatchTracer.PATH, tracer);
+        }
+
+        // 6.首次启动成功后写入快照，下次部署相同的包时直接使用
+        if (Objects.nonNull(startupSnapshot) && !fromSnapshot) {
+            startupSnapshot.save(componentDefinitions.values());
+        }
+
         System.out.println("dev spring mvc init successful......");
     }
 
+    @Override
+    public void destroy() {
+        if (Objects.nonNull(offloadExecutor)) {
+            offloadExecutor.shutdown();
+        }
+    }
+
     /**
      * 加载配置文件
      *
@@ -129,143 +449,252 @@ public class DevDispatcherServlet extends HttpServlet {
     }
 
     /**
-     * 扫描相关类
+     * 加载组件定义，依次尝试启动快照、编译期组件索引和classpath扫描
      *
      * @param basepackage
      */
-    private void doScanner(String basepackage) {
-        // 将包路径转换成文件路径
-        URL url = this.getClass().getClassLoader().getResource("/" + basepackage.replaceAll("\\.", "/"));
-        if (Objects.isNull(url)) {
+    private void doLoadComponents(String basepackage) {
+        ClassLoader classLoader = this.getClass().getClassLoader();
+        if (Boolean.parseBoolean(properties.getProperty(SNAPSHOT_ENABLED, "false"))) {
+            String snapshotDir = properties.getProperty(SNAPSHOT_DIR);
+            if (StringUtils.isBlank(snapshotDir)) {
+                throw new IllegalStateException("启用启动快照时必须配置" + SNAPSHOT_DIR);
+            }
+            Path directory = Paths.get(snapshotDir.trim());
+            startupSnapshot = new StartupSnapshot(directory, basepackage, classLoader);
+            List<ComponentDefinition> snapshot = startupSnapshot.load();
+            if (Objects.nonNull(snapshot)) {
+                for (ComponentDefinition definition : snapshot) {
+                    componentDefinitions.put(definition.getClassName(), definition);
+                }
+                fromSnapshot = true;
+                System.out.println("Load " + snapshot.size() + " components from startup snapshot");
+                return;
+            }
+        }
+
+        List<ComponentDefinition> indexed = ComponentIndex.load(classLoader, basepackage);
+        if (CollectionUtils.isNotEmpty(indexed)) {
+            for (ComponentDefinition definition : indexed) {
+                componentDefinitions.put(definition.getClassName(), definition);
+            }
+            System.out.println("Load " + indexed.size() + " components from " + ComponentIndex.INDEX_LOCATION);
             return;
         }
-        File classFile = new File(url.getFile());
-        for (File file : classFile.listFiles()) {
-            // 如果是文件夹，则递归
-            if (file.isDirectory()) {
-                doScanner(basepackage + "." + file.getName());
-            } else {
-                if (!file.getName().endsWith("class")) {
-                    continue;
+
+        doScanner(basepackage);
+        try {
+            for (String className : classNames) {
+                // 只加载不初始化，静态代码块推迟到实例化时执行
+                ComponentDefinition definition = ComponentDefinition.fromClass(Class.forName(className, false, classLoader));
+                if (Objects.nonNull(definition)) {
+                    componentDefinitions.put(className, definition);
                 }
-                String className = (basepackage + "." + file.getName()).replace(".class", "");
-                classNames.add(className);
             }
-
+        } catch (ClassNotFoundException e) {
+            e.printStackTrace();
         }
     }
 
+    /**
+     * 扫描相关类，目录和jar包都支持，只保留使用了组件注解的类
+     *
+     * @param basepackage
+     */
+    private void doScanner(String basepackage) {
+        ClassPathScanner scanner = new ClassPathScanner(this.getClass().getClassLoader());
+        classNames.addAll(scanner.scan(basepackage, DevController.class, DevService.class));
+    }
+
     /**
      * 初始化相关类，进行IOC存储
      * 将类的初始化交给容器，这就是控制反转的过程
      */
     private void doInstance() {
+        beanFactory = new BeanFactory(this.getClass().getClassLoader(), new ProxyFactory(initInterceptors()));
+        for (ComponentDefinition definition : componentDefinitions.values()) {
+            beanFactory.register(definition);
+        }
+        int parallelism = Integer.parseInt(properties.getProperty(BEAN_INIT_PARALLELISM,
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        // 只在启动阶段使用，单例创建完成后关闭
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            beanFactory.preInstantiateSingletons(pool);
+        } finally {
+            pool.shutdown();
+        }
+        System.out.println("Register " + beanFactory.getBeanNames().size() + " beans, " + beanFactory.getSingletonCount()
+                + " singletons created at startup in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                + "ms, parallelism " + parallelism);
+    }
 
-        if (CollectionUtils.isNotEmpty(classNames)) {
+    /**
+     * 创建配置文件中的方法拦截器，需要在创建bean之前完成
+     *
+     * @return
+     */
+    private List<MethodInterceptor> initInterceptors() {
+        List<MethodInterceptor> interceptors = Lists.newArrayList();
+        for (String className : StringUtils.split(properties.getProperty(INTERCEPTORS, ""), ',')) {
             try {
-                for (String className : classNames) {
-                    Class<?> clazz = Class.forName(className);
-                    // 如果是Controller
-                    if (clazz.isAnnotationPresent(DevController.class)) {
-                        // 将第一个字母小写作为beanName
-                        String beanName = CommonUtils.toLowerFirstCase(clazz.getSimpleName());
-                        Object instance = clazz.newInstance();
-                        ioc.put(beanName, instance);
-                    } else if (clazz.isAnnotationPresent(DevService.class)) {
-                        // 这里Service注解有不同情况，因为可以自定义Service的名字
-                        DevService service = clazz.getAnnotation(DevService.class);
-                        // 如果存在自定义Service名字
-                        if (StringUtils.isNotEmpty(service.value())) {
-                            ioc.put(service.value(), clazz.newInstance());
-                            continue;
-                        }
-                        // 如果不存在自定义Service名称，则按照接口创建实例
-                        Class<?>[] interfaces = clazz.getInterfaces();
-                        for (Class<?> itemInterface : interfaces) {
-                            if (ioc.containsKey(itemInterface.getName())) {
-                                throw new RuntimeException("This bean already exists!");
-                            }
-                            ioc.put(itemInterface.getName(), clazz.newInstance());
-                        }
-                    } else {
-                        continue;
-                    }
-                }
+                interceptors.add((MethodInterceptor) Class.forName(className.trim()).newInstance());
             } catch (Exception e) {
-                e.printStackTrace();
+                throw new IllegalStateException("方法拦截器初始化异常:" + className, e);
             }
         }
+        if (!interceptors.isEmpty()) {
+            // 只在初始化时输出一次，生成代理类时不再逐个输出
+            System.out.println("Method interceptors:" + properties.getProperty(INTERCEPTORS).trim());
+        }
+        return interceptors;
     }
 
     /**
-     * 依赖注入过程
+     * 初始化HandlerMapping，保存url映射关系
      */
-    private void doAutoWired() {
-        if (MapUtils.isNotEmpty(ioc)) {
-            for (Map.Entry<String, Object> entry : ioc.entrySet()) {
-                // 获取实例对象中的所有属性
-                Field[] fields = entry.getValue().getClass().getDeclaredFields();
-                for (Field field : fields) {
-                    if (!field.isAnnotationPresent(DevAutowired.class)) {
-                        continue;
-                    }
-                    DevAutowired autowired = field.getAnnotation(DevAutowired.class);
-                    String beanName = autowired.value().trim();
-                    if (StringUtils.isAllBlank(beanName)) {
-                        // 获取类型的名称
-                        beanName = field.getType().getName();
-                    }
-                    field.setAccessible(true);
-                    try {
-                        // 为对象的属性设值 注入依赖
-                        field.set(entry.getValue(), ioc.get(beanName));
-                    } catch (IllegalAccessException e) {
-                        e.printStackTrace();
-                        throw new IllegalStateException("自动注入属性异常");
-                    }
-                }
+    private void initHandlerMapping() {
+        routeIndex = new RouteIndex<>(Long.parseLong(properties.getProperty(ROUTE_CACHE_SIZE, DEFAULT_ROUTE_CACHE_SIZE)), fromSnapshot);
+        initConverters();
+        jsonMapper = new JsonMapper(converterRegistry);
+        mappedInterceptors = initHandlerInterceptors();
+        Map<String, MethodRoutes> methodRoutes = Maps.newLinkedHashMap();
+        for (String beanName : beanFactory.getBeanNames()) {
+            ComponentDefinition definition = beanFactory.getDefinition(beanName);
+            if (!definition.isController()) {
+                continue;
+            }
+            Object controller = beanFactory.getBean(beanName);
+            // 代理类的方法上没有注解，从原始类型获取Method，调用时仍会经过代理
+            Class<?> clazz = ProxyFactory.getUserClass(controller.getClass());
+            // 获取Controller上设置的url
+            String baseUrl = definition.getBaseUrl();
+
+            // 获取Method上的url配置
+            for (RouteDefinition route : definition.getRoutes()) {
+                Method method = route.resolveMethod(clazz);
+                // 映射url
+                String url = normalize("/" + baseUrl + "/" + route.getMapping());
+                // 构建handlerMapping，同一路径按请求方法分组，变量名不同的同形模板视为同一路径，重复的映射在注册时抛出异常
+                // 拦截器在这里按路由模式筛选一次，请求时直接执行数组
+                HandlerMapping handlerMapping = new HandlerMapping(url, controller, method, converterRegistry, jsonMapper,
+                        MappedInterceptor.resolve(mappedInterceptors, url));
+                methodRoutes.computeIfAbsent(PathTemplate.shape(url), key -> new MethodRoutes(url)).add(handlerMapping);
+                handlerMappings.add(handlerMapping);
+                System.out.println("Mapping:" + url + (handlerMapping.requestMethods.length == 0 ? "" : " " + Arrays.toString(handlerMapping.requestMethods))
+                        + " Method:" + method
+                        + (handlerMapping.interceptors.length == 0 ? "" : " Interceptors:" + handlerMapping.interceptors.length));
             }
         }
+        for (MethodRoutes routes : methodRoutes.values()) {
+            routes.seal();
+            routeIndex.register(routes.getUrl(), routes);
+        }
+
     }
 
     /**
-     * 初始化HandlerMapping，保存url映射关系
+     * 把内置端点中标注了@DevRequestMapping的方法注册为路由，请求方法的限制、405和handler拦截器都与应用的路由一致
+     * 应用中已有路由能匹配该路径时不注册，内置端点不覆盖应用的路由
+     *
+     * @param url
+     * @param endpoint
      */
-    private void initHandlerMapping() {
-        if (MapUtils.isNotEmpty(ioc)) {
-            for (Map.Entry<String, Object> entry : ioc.entrySet()) {
-                Class<?> clazz = entry.getValue().getClass();
-                if (!clazz.isAnnotationPresent(DevController.class)) {
-                    continue;
-                }
-                String baseUrl = "";
-                // 获取Controller上设置的url
-                if (clazz.isAnnotationPresent(DevRequestMapping.class)) {
-                    DevRequestMapping requestMapping = clazz.getAnnotation(DevRequestMapping.class);
-                    baseUrl = requestMapping.value();
-                }
+    private void registerEndpoint(String url, Object endpoint) {
+        if (Objects.nonNull(routeIndex.lookup(url))) {
+            System.out.println("Endpoint " + url + " skipped, the path is already mapped");
+            return;
+        }
+        MethodRoutes routes = new MethodRoutes(url);
+        for (Method method : endpoint.getClass().getMethods()) {
+            if (!method.isAnnotationPresent(DevRequestMapping.class)) {
+                continue;
+            }
+            HandlerMapping handlerMapping = new HandlerMapping(url, endpoint, method, converterRegistry, jsonMapper,
+                    MappedInterceptor.resolve(mappedInterceptors, url));
+            routes.add(handlerMapping);
+            handlerMappings.add(handlerMapping);
+        }
+        routes.seal();
+        routeIndex.register(url, routes);
+        System.out.println("Endpoint:" + url + " Allow:" + routes.getAllow());
+    }
 
-                // 获取Method上的url配置
-                Method[] methods = clazz.getMethods();
-                for (Method method : methods) {
-                    if (!method.isAnnotationPresent(DevRequestMapping.class)) {
-                        continue;
-                    }
-                    // 映射url
-                    DevRequestMapping requestMapping = method.getAnnotation(DevRequestMapping.class);
-                    String url = ("/" + baseUrl + "/" + requestMapping.value()).replaceAll("/+", "/");
-                    Pattern pattern = Pattern.compile(url);
-                    // 构建handlerMapping
-                    if (handlerMappings.contains(pattern)) {
-                        throw new IllegalArgumentException("已存在相同url请求");
-                    }
-                    handlerMappings.add(new HandlerMapping(pattern, entry.getValue(), method));
-                    System.out.println("Mapping:" + url + " Method:" + method);
-                }
+    /**
+     * 创建配置文件中的handler拦截器，并读取各自的路由模式
+     *
+     * @return
+     */
+    private List<MappedInterceptor> initHandlerInterceptors() {
+        List<MappedInterceptor> mappedInterceptors = Lists.newArrayList();
+        for (String className : StringUtils.split(properties.getProperty(HANDLER_INTERCEPTORS, ""), ',')) {
+            className = className.trim();
+            HandlerInterceptor interceptor;
+            try {
+                interceptor = (HandlerInterceptor) Class.forName(className).newInstance();
+            } catch (Exception e) {
+                throw new IllegalStateException("handler拦截器初始化异常:" + className, e);
+            }
+            mappedInterceptors.add(new MappedInterceptor(interceptor, patterns(HANDLER_INTERCEPTOR_INCLUDES_PREFIX + className),
+                    patterns(HANDLER_INTERCEPTOR_EXCLUDES_PREFIX + className)));
+        }
+        return mappedInterceptors;
+    }
 
+    private List<String> patterns(String key) {
+        List<String> patterns = Lists.newArrayList();
+        for (String pattern : StringUtils.split(properties.getProperty(key, ""), ',')) {
+            if (StringUtils.isNotBlank(pattern)) {
+                patterns.add(pattern.trim());
             }
         }
+        return patterns;
+    }
 
+    /**
+     * 读取异步请求配置，创建offload执行器
+     */
+    private void initAsyncSupport() {
+        asyncTimeout = Long.parseLong(properties.getProperty(ASYNC_TIMEOUT, "30000"));
+        asyncTimeoutStatus = Integer.parseInt(properties.getProperty(ASYNC_TIMEOUT_STATUS, "503"));
+        asyncTimeoutBody = EncodedBody.text(asyncTimeoutStatus + " Async Request Timeout");
+        streamTimeout = Long.parseLong(properties.getProperty(STREAM_TIMEOUT, "0"));
+        ClassLoader classLoader = this.getClass().getClassLoader();
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.startsWith(ERROR_STATUS_PREFIX)) {
+                continue;
+            }
+            String className = key.substring(ERROR_STATUS_PREFIX.length());
+            try {
+                errorStatusMapping.put(Class.forName(className, false, classLoader), Integer.parseInt(properties.getProperty(key).trim()));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("异常状态码映射配置错误:" + key, e);
+            }
+        }
+        // 参数绑定失败是客户端错误，没有配置时返回400
+        errorStatusMapping.putIfAbsent(RequestBindingException.class, HttpServletResponse.SC_BAD_REQUEST);
+
+        int threads = Integer.parseInt(properties.getProperty(OFFLOAD_THREADS, String.valueOf(Runtime.getRuntime().availableProcessors() * 2)));
+        int queueSize = Integer.parseInt(properties.getProperty(OFFLOAD_QUEUE_SIZE, "256"));
+        offloadExecutor = OffloadExecutor.create(properties.getProperty(OFFLOAD_EXECUTOR, OffloadExecutor.MODE_POOL).trim(), threads, queueSize);
+        offloadRejectStatus = Integer.parseInt(properties.getProperty(OFFLOAD_REJECT_STATUS, "503"));
+        offloadRejectBody = EncodedBody.text(offloadRejectStatus + " Offload Rejected");
+        System.out.println("Offload executor mode:" + offloadExecutor.getMode());
+    }
+
+    /**
+     * 注册配置文件中的自定义类型转换器，需要在构建HandlerMapping之前完成
+     */
+    private void initConverters() {
+        for (String className : StringUtils.split(properties.getProperty(CONVERTERS, ""), ',')) {
+            try {
+                Converter<?> converter = (Converter<?>) Class.forName(className.trim()).newInstance();
+                converterRegistry.register(converter);
+            } catch (Exception e) {
+                throw new IllegalStateException("类型转换器初始化异常:" + className, e);
+            }
+        }
     }
 
     /**
@@ -273,130 +702,422 @@ public class DevDispatcherServlet extends HttpServlet {
      *
      * @param req
      * @param resp
+     * @param handlerMapping
+     * @param start          请求开始时间，异步完成时用于记录延迟
+     * @param trace
+     * @return 是否已转为异步处理
      */
-    private void doDispatch(HttpServletRequest req, HttpServletResponse resp) throws Exception {
-        String uri = req.getRequestURI();
-        String url = uri.replaceAll("/+", "/");
+    private boolean doDispatch(HttpServletRequest req, HttpServletResponse resp, HandlerMapping handlerMapping, long start,
+                               DispatchTracer.Trace trace) throws Exception {
+        if (handlerMapping.cacheTtl > 0 && (HTTP_GET.equals(req.getMethod()) || isHead(req))) {
+            return doDispatchCached(req, resp, handlerMapping, start, trace);
+        }
 
-        HandlerMapping handlerMapping = filterHandlerMapping(url);
-        if (Objects.isNull(handlerMapping)) {
-            resp.getWriter().write("404 Not Found");
-            return;
+        // 阻塞的handler交给offload执行器，容器线程立即返回
+        if (handlerMapping.offload && req.isAsyncSupported()) {
+            doDispatchOffload(req, resp, handlerMapping, null, null, start, trace);
+            return true;
         }
 
-        Method method = handlerMapping.method;
+        // 按初始化时确定的解析器构建参数值数组
+        Object[] paramValues = handlerMapping.resolveArguments(req, resp);
+        trace.mark(DispatchTracer.BIND);
+
+        // 通过预编译的调用器执行方法
+        Object result = handlerMapping.invoker.invoke(paramValues);
+        trace.mark(DispatchTracer.INVOKE);
+        handlerMapping.applyPostHandle(req, resp, result);
+        if (handlerMapping.async) {
+            return doDispatchAsync(req, resp, (CompletionStage<?>) result, handlerMapping, null, start, trace);
+        }
+        if (isHead(req)) {
+            writeHeaders(resp, result);
+            trace.mark(DispatchTracer.WRITE);
+            return false;
+        }
+        // 流式响应释放容器线程，由WriteListener在输出流可写时逐块写出
+        if (handlerMapping.streaming && Objects.nonNull(result) && req.isAsyncSupported()) {
+            new AsyncResponse(req, resp, handlerMapping, null, start, trace, streamTimeout).complete(result, null);
+            return true;
+        }
+        handlerMapping.resultWriter.write(resp, result);
+        trace.mark(DispatchTracer.WRITE);
+        return false;
+    }
 
-        // 获取参数列表
-        Class<?>[] parameterTypes = method.getParameterTypes();
-        // 构建参数值数组
-        Object[] paramValues = new Object[parameterTypes.length];
+    /**
+     * 先按路由和绑定后的参数查找响应缓存，命中时不执行handler，未命中时执行后写入缓存
+     *
+     * @param req
+     * @param resp
+     * @param handlerMapping
+     * @param start
+     * @param trace
+     * @return 是否已转为异步处理
+     */
+    private boolean doDispatchCached(HttpServletRequest req, HttpServletResponse resp, HandlerMapping handlerMapping, long start,
+                                     DispatchTracer.Trace trace) throws Exception {
+        Object[] paramValues = handlerMapping.resolveArguments(req, resp);
+        trace.mark(DispatchTracer.BIND);
+        ResponseCache.Key cacheKey = new ResponseCache.Key(handlerMapping, paramValues);
+        ResponseCache.Entry cached = responseCache.get(cacheKey);
+        if (Objects.nonNull(cached)) {
+            ResponseCache.write(req, resp, cached, isHead(req));
+            trace.mark(DispatchTracer.WRITE);
+            return false;
+        }
 
-        Map<String, String[]> params = req.getParameterMap();
+        if (handlerMapping.offload && req.isAsyncSupported()) {
+            doDispatchOffload(req, resp, handlerMapping, paramValues, cacheKey, start, trace);
+            return true;
+        }
+        Object result = handlerMapping.invoker.invoke(paramValues);
+        trace.mark(DispatchTracer.INVOKE);
+        handlerMapping.applyPostHandle(req, resp, result);
+        if (handlerMapping.async) {
+            return doDispatchAsync(req, resp, (CompletionStage<?>) result, handlerMapping, cacheKey, start, trace);
+        }
+        writeResult(req, resp, result, cacheKey);
+        trace.mark(DispatchTracer.WRITE);
+        return false;
+    }
 
-        for (Map.Entry<String, String[]> param : params.entrySet()) {
-            String value = Joiner.on(",").join(param.getValue());
-            if (!handlerMapping.paramIndexMap.containsKey(param.getKey())) {
-                continue;
+    /**
+     * 处理返回CompletionStage的handler，释放容器线程，结果完成后再写回响应
+     * 容器不支持异步时退化为在当前线程等待结果
+     *
+     * @param req
+     * @param resp
+     * @param stage
+     * @param handlerMapping
+     * @param cacheKey 需要写入响应缓存时不为null
+     * @param start
+     * @param trace
+     * @return 是否已转为异步处理
+     */
+    private boolean doDispatchAsync(HttpServletRequest req, HttpServletResponse resp, CompletionStage<?> stage, HandlerMapping handlerMapping,
+                                    ResponseCache.Key cacheKey, long start, DispatchTracer.Trace trace) throws Exception {
+        if (Objects.isNull(stage)) {
+            return false;
+        }
+        if (!req.isAsyncSupported()) {
+            Object result;
+            try {
+                result = stage.toCompletableFuture().get(asyncTimeout, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                writeStatus(resp, asyncTimeoutStatus, asyncTimeoutBody);
+                return false;
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            } finally {
+                trace.mark(DispatchTracer.AWAIT);
             }
-            Integer index = handlerMapping.paramIndexMap.get(param.getKey());
-            paramValues[index] = convert(parameterTypes[index], value);
+            writeResult(req, resp, result, cacheKey);
+            trace.mark(DispatchTracer.WRITE);
+            return false;
         }
 
-        // 对两个特殊参数的处理
-        Integer reqIndex = handlerMapping.paramIndexMap.get(HttpServletRequest.class.getName());
-        if (Objects.nonNull(reqIndex)) {
-            paramValues[reqIndex] = req;
+        AsyncResponse asyncResponse = new AsyncResponse(req, resp, handlerMapping, cacheKey, start, trace, asyncTimeout);
+        stage.whenComplete(asyncResponse::complete);
+        return true;
+    }
+
+    /**
+     * 在offload执行器中绑定参数并执行handler，执行器已满时直接返回拒绝状态码
+     *
+     * @param req
+     * @param resp
+     * @param handlerMapping
+     * @param resolved       已经绑定好的参数，为null时在执行器中绑定
+     * @param cacheKey       需要写入响应缓存时不为null
+     * @param start
+     * @param trace
+     */
+    private void doDispatchOffload(HttpServletRequest req, HttpServletResponse resp, HandlerMapping handlerMapping, Object[] resolved,
+                                   ResponseCache.Key cacheKey, long start, DispatchTracer.Trace trace) {
+        long timeout = handlerMapping.streaming ? streamTimeout : asyncTimeout;
+        AsyncResponse asyncResponse = new AsyncResponse(req, resp, handlerMapping, cacheKey, start, trace, timeout);
+        try {
+            offloadExecutor.execute(() -> {
+                trace.mark(DispatchTracer.QUEUE);
+                try {
+                    Object[] paramValues = resolved;
+                    if (Objects.isNull(paramValues)) {
+                        paramValues = handlerMapping.resolveArguments(req, resp);
+                        trace.mark(DispatchTracer.BIND);
+                    }
+                    Object result = handlerMapping.invoker.invoke(paramValues);
+                    trace.mark(DispatchTracer.INVOKE);
+                    handlerMapping.applyPostHandle(req, resp, result);
+                    if (handlerMapping.async && Objects.nonNull(result)) {
+                        ((CompletionStage<?>) result).whenComplete(asyncResponse::complete);
+                    } else {
+                        asyncResponse.complete(result, null);
+                    }
+                } catch (Exception e) {
+                    asyncResponse.complete(null, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            asyncResponse.completeWithStatus(offloadRejectStatus, offloadRejectBody);
+        }
+    }
+
+    /**
+     * 输出异步handler的返回值，按实际类型选择写出方式，需要缓存时编码后写入响应缓存
+     * HEAD请求同样写入缓存并设置ETag，只是不写出响应体
+     *
+     * @param req
+     * @param resp
+     * @param result
+     * @param cacheKey
+     * @throws IOException
+     */
+    private void writeResult(HttpServletRequest req, HttpServletResponse resp, Object result, ResponseCache.Key cacheKey) throws IOException {
+        if (Objects.nonNull(cacheKey) && !ChunkSource.isStreaming(result)) {
+            ResponseCache.write(req, resp, responseCache.put(cacheKey, result), isHead(req));
+            return;
         }
-        Integer resIndex = handlerMapping.paramIndexMap.get(HttpServletResponse.class.getName());
-        if (Objects.nonNull(resIndex)) {
-            paramValues[resIndex] = resp;
+        if (isHead(req)) {
+            writeHeaders(resp, result);
+            return;
+        }
+        ResultWriter.forValue(result, jsonMapper).write(resp, result);
+    }
+
+    /**
+     * 合并url中连续的"/"，绝大多数请求不包含"//"，直接返回原字符串
+     *
+     * @param url
+     * @return
+     */
+    private static String normalize(String url) {
+        return url.contains("//") ? MULTIPLE_SLASHES.matcher(url).replaceAll("/") : url;
+    }
+
+    private static boolean isHead(HttpServletRequest req) {
+        return HTTP_HEAD.equals(req.getMethod());
+    }
+
+    /**
+     * HEAD请求只按返回值类型设置响应头，不为了计算Content-Length而序列化返回值
+     * 流式结果不设置响应头，只关闭以释放资源
+     *
+     * @param resp
+     * @param result
+     */
+    private void writeHeaders(HttpServletResponse resp, Object result) {
+        if (ChunkSource.isStreaming(result)) {
+            try {
+                ChunkSource.from(result).close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            return;
         }
-        // 通过反射执行方法 
-        Object result = method.invoke(handlerMapping.controller, paramValues);
         if (Objects.nonNull(result)) {
-            resp.getWriter().write(result.toString());
+            ResultWriter.writeHeaders(resp, result);
+        }
+    }
+
+    private void writeStatus(HttpServletResponse resp, int status, EncodedBody body) throws IOException {
+        resp.setStatus(status);
+        body.writeTo(resp);
+    }
+
+    /**
+     * 按照配置的映射关系输出异常，未配置的异常返回500
+     * 4xx属于客户端错误，只输出异常信息，不打印也不返回堆栈
+     *
+     * @param resp
+     * @param e
+     * @throws IOException
+     */
+    private void handleException(HttpServletResponse resp, Throwable e) throws IOException {
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        for (Class<?> type = e.getClass(); Objects.nonNull(type); type = type.getSuperclass()) {
+            Integer mapped = errorStatusMapping.get(type);
+            if (Objects.nonNull(mapped)) {
+                status = mapped;
+                break;
+            }
+        }
+        resp.setStatus(status);
+        if (status < HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+            ResultWriter.TEXT.write(resp, status + " " + e.getMessage());
+            return;
         }
+        e.printStackTrace();
+        ResultWriter.TEXT.write(resp, status + " Exception Detail:" + Arrays.toString(e.getStackTrace()));
     }
 
     /**
-     * 参数类型转换 由于通过http协议传过来的数据都是字符串的形式，这里需要根据参数的具体类型
-     * 进行转换，目前只支持String和Integer的转换，后续可根据策略模式进行添加
+     * 去掉CompletableFuture对异常的包装
      *
-     * @param type
-     * @param value
+     * @param error
      * @return
      */
-    private Object convert(Class<?> type, String value) {
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && Objects.nonNull(error.getCause())) {
+            error = error.getCause();
+        }
+        return error;
+    }
 
-        if (type == Integer.class) {
-            return Integer.valueOf(value);
+    private static Exception unwrap(ExecutionException e) {
+        Throwable cause = unwrap((Throwable) e);
+        if (cause instanceof Error) {
+            throw (Error) cause;
         }
-        return value;
+        return cause instanceof Exception ? (Exception) cause : e;
     }
 
     /**
-     * 过滤HandlerMapping
+     * 过滤HandlerMapping，普通url精确匹配，url模板按段匹配，正则url先查缓存再按具体程度依次匹配
      *
      * @param url
      * @return
      */
-    private HandlerMapping filterHandlerMapping(String url) {
-        Optional<HandlerMapping> result = handlerMappings.stream().filter(e -> e.pattern.matcher(url).matches()).findAny();
-        return result.orElse(null);
+    private MethodRoutes filterHandlerMapping(String url) {
+        return routeIndex.lookup(url);
     }
 
     /**
-     * 用HandlerMapping来记录Controller中RequestMapping和Method的对应关系
+     * 已开始异步处理的响应，超时、出错和正常完成只有一个能写响应
+     * 结果为流式类型时交给StreamingWriter，由它在写完或中断时结束异步请求
      */
-    private class HandlerMapping {
+    private class AsyncResponse implements AsyncListener {
+
+        private final AsyncContext asyncContext;
+
+        private final HttpServletRequest req;
+
+        private final HttpServletResponse resp;
 
-        protected Pattern pattern;
+        private final HandlerMapping handlerMapping;
+
+        private final ResponseCache.Key cacheKey;
+
+        private final long start;
+
+        private final DispatchTracer.Trace trace;
+
+        private final AtomicBoolean completed = new AtomicBoolean();
 
         /**
-         * 保存Controller实例
+         * 正在写出的流式响应，超时或出错时需要中断
          */
-        protected Object controller;
-        protected Method method;
+        private volatile StreamingWriter streamingWriter;
 
         /**
-         * 保存参数顺序
+         * handler的异常，完成时传给拦截器的afterCompletion
          */
-        protected Map<String, Integer> paramIndexMap;
+        private volatile Throwable error;
+
+        AsyncResponse(HttpServletRequest req, HttpServletResponse resp, HandlerMapping handlerMapping, ResponseCache.Key cacheKey, long start,
+                      DispatchTracer.Trace trace, long timeout) {
+            this.req = req;
+            this.resp = resp;
+            this.handlerMapping = handlerMapping;
+            this.cacheKey = cacheKey;
+            this.start = start;
+            this.trace = trace;
+            this.asyncContext = req.startAsync(req, resp);
+            asyncContext.setTimeout(timeout);
+            asyncContext.addListener(this);
+        }
 
-        public HandlerMapping(Pattern pattern, Object controller, Method method) {
-            this.pattern = pattern;
-            this.controller = controller;
-            this.method = method;
+        /**
+         * 写入handler的结果或异常并结束异步请求
+         *
+         * @param result
+         * @param error
+         */
+        void complete(Object result, Throwable error) {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            trace.mark(DispatchTracer.AWAIT);
+            if (Objects.nonNull(error)) {
+                this.error = unwrap(error);
+            }
+            if (Objects.isNull(error) && ChunkSource.isStreaming(result) && !isHead(req)) {
+                stream(ChunkSource.from(result));
+                return;
+            }
+            try {
+                if (Objects.nonNull(error)) {
+                    handleException(resp, this.error);
+                } else {
+                    writeResult(req, resp, result, cacheKey);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                trace.mark(DispatchTracer.WRITE);
+                asyncContext.complete();
+            }
+        }
 
-            paramIndexMap = Maps.newHashMap();
+        private void stream(ChunkSource source) {
+            StreamingWriter writer = new StreamingWriter(asyncContext, resp, source, trace);
+            streamingWriter = writer;
+            try {
+                writer.start();
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+                writer.abort();
+            }
+        }
 
-            buildParamIndex(paramIndexMap);
+        void completeWithStatus(int status, EncodedBody body) {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                writeStatus(resp, status, body);
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                asyncContext.complete();
+            }
+        }
 
+        @Override
+        public void onComplete(AsyncEvent event) {
+            handlerMapping.triggerAfterCompletion(req, resp, error);
+            handlerMapping.metrics.end(start, resp.getStatus());
+            trace.finish(resp.getStatus());
         }
 
-        private void buildParamIndex(Map<String, Integer> paramIndexMap) {
-            // 获取方法上的注解
-            Annotation[][] parameterAnnotations = method.getParameterAnnotations();
-            for (int i = 0; i < parameterAnnotations.length; i++) {
-                for (Annotation annotation : parameterAnnotations[i]) {
-                    if (annotation instanceof DevRequestParam) {
-                        String paramName = ((DevRequestParam) annotation).value();
-                        if (StringUtils.isNotEmpty(paramName)) {
-                            paramIndexMap.put(paramName, i);
-                        }
-                    }
-                }
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // 流式响应的状态码已经发出，只能中断
+            StreamingWriter writer = streamingWriter;
+            if (Objects.nonNull(writer)) {
+                System.out.println("Streaming response timeout");
+                writer.abort();
+                return;
             }
+            completeWithStatus(asyncTimeoutStatus, asyncTimeoutBody);
+        }
 
-            // 提取方法中的Request和Response
-            Class<?>[] parameterTypes = method.getParameterTypes();
-            for (int i = 0; i < parameterTypes.length; i++) {
-                Class<?> type = parameterTypes[i];
-                if (type == HttpServletRequest.class || type == HttpServletResponse.class) {
-                    paramIndexMap.put(type.getName(), i);
-                }
+        @Override
+        public void onError(AsyncEvent event) {
+            StreamingWriter writer = streamingWriter;
+            if (Objects.nonNull(writer)) {
+                event.getThrowable().printStackTrace();
+                writer.abort();
+                return;
+            }
+            if (completed.compareAndSet(false, true)) {
+                event.getThrowable().printStackTrace();
+                asyncContext.complete();
             }
         }
-    }
 
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
 }
@@ -0,0 +1,210 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import com.google.common.collect.Lists;
+import com.learning.springmvc.annotation.DevRequestMapping;
+import com.learning.springmvc.annotation.RequestMethod;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 21:40
+ * @description: 分阶段的请求追踪，按采样率记录路由、排队、参数绑定、方法执行、等待异步结果和写响应各阶段的耗时
+ * 追踪结果写入按线程id分段的环形缓冲区，每段固定大小，旧记录被覆盖，虚拟线程再多也不会无限增长
+ * 未采样的请求使用共享的Trace.NONE，只有一次字段判断
+ * 启用采样后/__trace作为普通的GET路由注册，经过handler拦截器
+ */
+class DispatchTracer {
+
+    static final String PATH = "/__trace";
+
+    static final int ROUTE = 0;
+
+    static final int QUEUE = 1;
+
+    static final int BIND = 2;
+
+    static final int INVOKE = 3;
+
+    static final int AWAIT = 4;
+
+    static final int WRITE = 5;
+
+    private static final String[] PHASE_NAMES = {"route", "queue", "bind", "invoke", "await", "write"};
+
+    private final double sampleRate;
+
+    private final int slowest;
+
+    private final Ring[] rings;
+
+    private final int mask;
+
+    /**
+     * @param sampleRate 采样率，0到1之间
+     * @param bufferSize 每段环形缓冲区的大小
+     * @param slowest    默认输出最慢的请求数
+     */
+    DispatchTracer(double sampleRate, int bufferSize, int slowest) {
+        this.sampleRate = sampleRate;
+        this.slowest = slowest;
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        this.rings = new Ring[stripes];
+        for (int i = 0; i < stripes; i++) {
+            rings[i] = new Ring(bufferSize);
+        }
+        this.mask = stripes - 1;
+    }
+
+    /**
+     * 开始追踪一个请求，未命中采样时返回Trace.NONE
+     *
+     * @param url
+     * @return
+     */
+    Trace start(String url) {
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return Trace.NONE;
+        }
+        return new Trace(this, url);
+    }
+
+    private void record(Trace trace) {
+        rings[(int) Thread.currentThread().getId() & mask].add(trace);
+    }
+
+    /**
+     * 端点的handler，limit参数无法解析时使用默认值
+     *
+     * @param req
+     * @param resp
+     * @throws IOException
+     */
+    @DevRequestMapping(value = PATH, method = RequestMethod.GET)
+    public void handle(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        resp.setContentType("text/plain; charset=utf-8");
+        write(resp.getWriter(), NumberUtils.toInt(req.getParameter("limit")));
+    }
+
+    /**
+     * 输出缓冲区中最慢的请求及各阶段耗时(微秒)
+     *
+     * @param writer
+     * @param limit  小于等于0时使用默认值
+     */
+    void write(PrintWriter writer, int limit) {
+        List<Trace> traces = Lists.newArrayList();
+        for (Ring ring : rings) {
+            ring.collect(traces);
+        }
+        traces.sort(Comparator.comparingLong((Trace trace) -> trace.total).reversed());
+        int size = Math.min(traces.size(), limit > 0 ? limit : slowest);
+        writer.print("# slowest " + size + " of " + traces.size() + " sampled requests, sampleRate=" + sampleRate + ", unit=us\n");
+        for (int i = 0; i < size; i++) {
+            Trace trace = traces.get(i);
+            writer.print(TimeUnit.NANOSECONDS.toMicros(trace.total) + " " + trace.status + " " + trace.url + " thread=" + trace.thread);
+            for (int phase = 0; phase < PHASE_NAMES.length; phase++) {
+                writer.print(" " + PHASE_NAMES[phase] + "=" + TimeUnit.NANOSECONDS.toMicros(trace.phases[phase]));
+            }
+            writer.print("\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * 单个请求的追踪记录，只在一个时刻被一个线程修改，异步请求在线程间传递时由AsyncContext保证可见性
+     */
+    static class Trace {
+
+        static final Trace NONE = new Trace(null, null);
+
+        private final DispatchTracer tracer;
+
+        private final String url;
+
+        private final long[] phases = new long[PHASE_NAMES.length];
+
+        private final long start;
+
+        private long last;
+
+        private long total;
+
+        private int status;
+
+        private String thread;
+
+        private Trace(DispatchTracer tracer, String url) {
+            this.tracer = tracer;
+            this.url = url;
+            this.start = System.nanoTime();
+            this.last = start;
+        }
+
+        /**
+         * 记录从上一次标记到现在的耗时，累加到指定阶段
+         *
+         * @param phase
+         */
+        void mark(int phase) {
+            if (Objects.isNull(tracer)) {
+                return;
+            }
+            long now = System.nanoTime();
+            phases[phase] += now - last;
+            last = now;
+        }
+
+        /**
+         * 请求结束，写入缓冲区
+         *
+         * @param status
+         */
+        void finish(int status) {
+            if (Objects.isNull(tracer)) {
+                return;
+            }
+            this.total = System.nanoTime() - start;
+            this.status = status;
+            this.thread = Thread.currentThread().getName();
+            tracer.record(this);
+        }
+    }
+
+    private static class Ring {
+
+        private final AtomicReferenceArray<Trace> slots;
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        Ring(int size) {
+            this.slots = new AtomicReferenceArray<>(size);
+        }
+
+        void add(Trace trace) {
+            slots.set((next.getAndIncrement() & Integer.MAX_VALUE) % slots.length(), trace);
+        }
+
+        void collect(List<Trace> traces) {
+            for (int i = 0; i < slots.length(); i++) {
+                Trace trace = slots.get(i);
+                if (Objects.nonNull(trace)) {
+                    traces.add(trace);
+                }
+            }
+        }
+    }
+}
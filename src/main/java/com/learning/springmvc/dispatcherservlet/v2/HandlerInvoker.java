@@ -0,0 +1,118 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import net.sf.cglib.reflect.FastClass;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 11:05
+ * @description: 预编译的handler调用器，在构建HandlerMapping时生成，替代每次请求的Method.invoke
+ * 优先使用cglib的FastClass生成直接调用的字节码，生成失败时退化为绑定了Controller实例的MethodHandle
+ * 两种实现对外抛出的都是方法本身的异常，不再包装成InvocationTargetException
+ */
+abstract class HandlerInvoker {
+
+    /**
+     * 调用handler方法
+     *
+     * @param args
+     * @return
+     * @throws Exception
+     */
+    abstract Object invoke(Object[] args) throws Exception;
+
+    /**
+     * 为Controller中的方法创建调用器
+     *
+     * @param target
+     * @param method
+     * @return
+     */
+    static HandlerInvoker create(Object target, Method method) {
+        try {
+            return fastClass(target, method);
+        } catch (RuntimeException | LinkageError e) {
+            // 例如高版本jdk未开放ClassLoader.defineClass时，cglib无法生成类
+            System.out.println("FastClass unavailable for " + method + ", fallback to MethodHandle: " + e);
+            return methodHandle(target, method);
+        }
+    }
+
+    static HandlerInvoker fastClass(Object target, Method method) {
+        FastClass fastClass = FastClass.create(method.getDeclaringClass().getClassLoader(), method.getDeclaringClass());
+        int index = fastClass.getIndex(method.getName(), method.getParameterTypes());
+        if (index < 0) {
+            throw new IllegalStateException("FastClass中不存在方法:" + method);
+        }
+        return new FastClassInvoker(fastClass, index, target);
+    }
+
+    static HandlerInvoker methodHandle(Object target, Method method) {
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method)
+                    .bindTo(target)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new MethodHandleInvoker(handle);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问handler方法:" + method, e);
+        }
+    }
+
+    private static class FastClassInvoker extends HandlerInvoker {
+
+        private final FastClass fastClass;
+        private final int index;
+        private final Object target;
+
+        private FastClassInvoker(FastClass fastClass, int index, Object target) {
+            this.fastClass = fastClass;
+            this.index = index;
+            this.target = target;
+        }
+
+        @Override
+        Object invoke(Object[] args) throws Exception {
+            try {
+                return fastClass.invoke(index, target, args);
+            } catch (InvocationTargetException e) {
+                throw rethrow(e.getCause());
+            }
+        }
+    }
+
+    private static class MethodHandleInvoker extends HandlerInvoker {
+
+        private final MethodHandle handle;
+
+        private MethodHandleInvoker(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        Object invoke(Object[] args) throws Exception {
+            try {
+                return (Object) handle.invokeExact(args);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+    private static Exception rethrow(Throwable e) {
+        if (e instanceof Exception) {
+            return (Exception) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new UndeclaredThrowableException(e);
+    }
+}
@@ -0,0 +1,224 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.learning.springmvc.annotation.DevCacheable;
+import com.learning.springmvc.annotation.DevOffload;
+import com.learning.springmvc.annotation.DevRequestMapping;
+import com.learning.springmvc.annotation.RequestMethod;
+import com.learning.springmvc.aop.ProxyFactory;
+import com.learning.springmvc.convert.ConverterRegistry;
+import com.learning.springmvc.http.ChunkSource;
+import com.learning.springmvc.http.HandlerInterceptor;
+import com.learning.springmvc.json.JsonMapper;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2019-11-05 19:00
+ * @description: 用HandlerMapping来记录Controller中RequestMapping和Method的对应关系
+ */
+class HandlerMapping {
+
+    /**
+     * 映射的url，可能是正则或url模板
+     */
+    protected final String url;
+
+    /**
+     * url为模板时编译好的模板，用于提取变量值，否则为null
+     */
+    protected final PathTemplate pathTemplate;
+
+    /**
+     * 保存Controller实例
+     */
+    protected final Object controller;
+    protected final Method method;
+
+    /**
+     * 初始化时生成的调用器，避免每次请求都走反射
+     */
+    protected final HandlerInvoker invoker;
+
+    /**
+     * 方法上@DevRequestMapping限定的请求方法，为空时处理所有请求方法
+     */
+    protected final RequestMethod[] requestMethods;
+
+    /**
+     * 按参数顺序保存的参数解析器
+     */
+    protected final ArgumentResolver[] argumentResolvers;
+
+    /**
+     * 返回值是否为CompletionStage，需要异步写回响应
+     */
+    protected final boolean async;
+
+    /**
+     * 返回值是否为Stream、Iterator或ChunkSource，需要分块写出
+     */
+    protected final boolean streaming;
+
+    /**
+     * 是否在offload执行器中运行，方法上的@DevOffload优先于Controller上的
+     */
+    protected final boolean offload;
+
+    /**
+     * 方法上@DevCacheable指定的缓存时间(纳秒)，0表示不缓存
+     */
+    protected final long cacheTtl;
+
+    /**
+     * 按返回类型确定的写出器
+     */
+    protected final ResultWriter resultWriter;
+
+    /**
+     * 路由的请求数、错误数和延迟统计
+     */
+    protected final RouteMetrics metrics = new RouteMetrics();
+
+    /**
+     * 初始化时按路由模式筛选出的拦截器，请求时按数组顺序执行，不再匹配模式
+     */
+    protected final HandlerInterceptor[] interceptors;
+
+    HandlerMapping(String url, Object controller, Method method, ConverterRegistry converterRegistry, JsonMapper jsonMapper) {
+        this(url, controller, method, converterRegistry, jsonMapper, new HandlerInterceptor[0]);
+    }
+
+    HandlerMapping(String url, Object controller, Method method, ConverterRegistry converterRegistry, JsonMapper jsonMapper,
+                   HandlerInterceptor[] interceptors) {
+        this.url = url;
+        this.interceptors = interceptors;
+        this.pathTemplate = PathTemplate.compile(url);
+        this.controller = controller;
+        this.method = method;
+        this.invoker = HandlerInvoker.create(controller, method);
+        DevRequestMapping devRequestMapping = method.getAnnotation(DevRequestMapping.class);
+        this.requestMethods = Objects.isNull(devRequestMapping) ? new RequestMethod[0] : devRequestMapping.method();
+        this.async = CompletionStage.class.isAssignableFrom(method.getReturnType());
+        this.streaming = ChunkSource.isStreaming(method.getReturnType());
+        this.resultWriter = ResultWriter.forType(method.getReturnType(), jsonMapper);
+        DevOffload devOffload = method.isAnnotationPresent(DevOffload.class) ? method.getAnnotation(DevOffload.class)
+                : ProxyFactory.getUserClass(controller.getClass()).getAnnotation(DevOffload.class);
+        this.offload = Objects.nonNull(devOffload) && devOffload.value();
+
+        argumentResolvers = new ArgumentResolver[method.getParameterCount()];
+        for (int i = 0; i < argumentResolvers.length; i++) {
+            argumentResolvers[i] = ArgumentResolver.forParameter(method, i, pathTemplate, converterRegistry, jsonMapper);
+        }
+
+        DevCacheable devCacheable = method.getAnnotation(DevCacheable.class);
+        this.cacheTtl = Objects.isNull(devCacheable) ? 0 : devCacheable.unit().toNanos(devCacheable.ttl());
+        if (Objects.nonNull(devCacheable)) {
+            checkCacheable(method);
+        }
+    }
+
+    /**
+     * 缓存key只包含绑定后的请求参数和url变量，读取request、response或请求体的handler无法安全缓存
+     *
+     * @param method
+     */
+    private void checkCacheable(Method method) {
+        boolean paramsOnly = Arrays.stream(argumentResolvers)
+                .allMatch(resolver -> resolver == ArgumentResolver.NULL || resolver instanceof ArgumentResolver.RequestParamResolver
+                        || resolver instanceof ArgumentResolver.PathVariableResolver);
+        if (!paramsOnly || streaming || method.getReturnType() == void.class || cacheTtl <= 0) {
+            throw new IllegalStateException("@DevCacheable只能用于参数全部来自@DevRequestParam或@DevPathVariable且有返回值的方法:" + method);
+        }
+    }
+
+    /**
+     * 按下标一次性构建参数值数组
+     *
+     * @param req
+     * @param resp
+     * @return
+     * @throws Exception
+     */
+    Object[] resolveArguments(HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        Object[] paramValues = new Object[argumentResolvers.length];
+        for (int i = 0; i < argumentResolvers.length; i++) {
+            paramValues[i] = argumentResolvers[i].resolve(req, resp);
+        }
+        return paramValues;
+    }
+
+    /**
+     * 按顺序执行拦截器的preHandle，某个拦截器返回false或抛出异常时，对之前已通过的拦截器调用afterCompletion
+     *
+     * @param req
+     * @param resp
+     * @return 是否继续执行handler
+     * @throws Exception
+     */
+    boolean applyPreHandle(HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        for (int i = 0; i < interceptors.length; i++) {
+            boolean proceed;
+            try {
+                proceed = interceptors[i].preHandle(req, resp, method);
+            } catch (Exception e) {
+                triggerAfterCompletion(req, resp, e, i);
+                throw e;
+            }
+            if (!proceed) {
+                triggerAfterCompletion(req, resp, null, i);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按相反顺序执行拦截器的postHandle
+     *
+     * @param req
+     * @param resp
+     * @param result
+     * @throws Exception
+     */
+    void applyPostHandle(HttpServletRequest req, HttpServletResponse resp, Object result) throws Exception {
+        for (int i = interceptors.length - 1; i >= 0; i--) {
+            interceptors[i].postHandle(req, resp, method, result);
+        }
+    }
+
+    /**
+     * 请求完成后按相反顺序执行所有拦截器的afterCompletion
+     *
+     * @param req
+     * @param resp
+     * @param error
+     */
+    void triggerAfterCompletion(HttpServletRequest req, HttpServletResponse resp, Throwable error) {
+        triggerAfterCompletion(req, resp, error, interceptors.length);
+    }
+
+    /**
+     * 响应已经写出，afterCompletion的异常只打印不再处理
+     *
+     * @param req
+     * @param resp
+     * @param error
+     * @param count 已通过preHandle的拦截器数量
+     */
+    private void triggerAfterCompletion(HttpServletRequest req, HttpServletResponse resp, Throwable error, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            try {
+                interceptors[i].afterCompletion(req, resp, method, error);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 21:00
+ * @description: 对数线性分桶的延迟直方图，参考HdrHistogram的分桶方式
+ * 每个2的幂区间再均分为8个子桶，相对误差不超过12.5%，桶的数量固定，记录时只做位运算和原子自增，不分配对象
+ */
+class LatencyHistogram {
+
+    /**
+     * 每个2的幂区间的子桶位数
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos
+     */
+    void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(indexOf(nanos));
+        sum.add(nanos);
+    }
+
+    /**
+     * 当前所有桶的计数，记录与读取并发进行时只保证每个桶各自准确
+     *
+     * @return
+     */
+    long[] snapshot() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * 在快照中计算分位数，返回所在桶的上界(纳秒)
+     *
+     * @param snapshot
+     * @param total
+     * @param quantile
+     * @return
+     */
+    static long valueAtQuantile(long[] snapshot, long total, double quantile) {
+        if (total <= 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(snapshot.length - 1);
+    }
+
+    static long total(long[] snapshot) {
+        long total = 0;
+        for (long count : snapshot) {
+            total += count;
+        }
+        return total;
+    }
+
+    static int indexOf(long value) {
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        if (highestBit < SUB_BUCKET_BITS) {
+            return (int) value;
+        }
+        int shift = highestBit - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >>> shift) & SUB_BUCKET_MASK);
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long mantissa = SUB_BUCKET_COUNT + (index & SUB_BUCKET_MASK);
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,103 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import com.learning.springmvc.http.HandlerInterceptor;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 05:30
+ * @description: 带有路由模式的handler拦截器，只在初始化HandlerMapping时按路由的url匹配一次
+ * 模式按"/"分段匹配："**"匹配任意多段，段内的"*"匹配任意字符；url模板中的变量段按原样参与匹配，可以用"*"匹配
+ * 没有配置包含模式时对所有路由生效，排除模式优先于包含模式
+ */
+class MappedInterceptor {
+
+    private static final String ANY_SEGMENTS = "**";
+
+    private static final String WILDCARD = "*";
+
+    private final HandlerInterceptor interceptor;
+
+    private final List<String> includePatterns;
+
+    private final List<String> excludePatterns;
+
+    MappedInterceptor(HandlerInterceptor interceptor, List<String> includePatterns, List<String> excludePatterns) {
+        this.interceptor = interceptor;
+        this.includePatterns = includePatterns;
+        this.excludePatterns = excludePatterns;
+    }
+
+    /**
+     * 按配置顺序筛选对该路由生效的拦截器
+     *
+     * @param mappedInterceptors
+     * @param url                路由映射的url
+     * @return
+     */
+    static HandlerInterceptor[] resolve(List<MappedInterceptor> mappedInterceptors, String url) {
+        return mappedInterceptors.stream()
+                .filter(mappedInterceptor -> mappedInterceptor.matches(url))
+                .map(mappedInterceptor -> mappedInterceptor.interceptor)
+                .toArray(HandlerInterceptor[]::new);
+    }
+
+    boolean matches(String url) {
+        for (String pattern : excludePatterns) {
+            if (match(pattern, url)) {
+                return false;
+            }
+        }
+        if (includePatterns.isEmpty()) {
+            return true;
+        }
+        for (String pattern : includePatterns) {
+            if (match(pattern, url)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean match(String pattern, String url) {
+        List<String> patternSegments = PathTemplate.split(pattern);
+        List<String> urlSegments = PathTemplate.split(url);
+        return match(patternSegments, 0, urlSegments, 0);
+    }
+
+    private static boolean match(List<String> pattern, int patternIndex, List<String> url, int urlIndex) {
+        if (patternIndex == pattern.size()) {
+            return urlIndex == url.size();
+        }
+        String segment = pattern.get(patternIndex);
+        if (ANY_SEGMENTS.equals(segment)) {
+            for (int i = urlIndex; i <= url.size(); i++) {
+                if (match(pattern, patternIndex + 1, url, i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return urlIndex < url.size() && matchSegment(segment, url.get(urlIndex)) && match(pattern, patternIndex + 1, url, urlIndex + 1);
+    }
+
+    private static boolean matchSegment(String pattern, String segment) {
+        if (WILDCARD.equals(pattern)) {
+            return true;
+        }
+        if (!pattern.contains(WILDCARD)) {
+            return pattern.equals(segment);
+        }
+        String[] literals = pattern.split("\\*", -1);
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < literals.length; i++) {
+            if (i > 0) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(literals[i]));
+        }
+        return segment.matches(regex.toString());
+    }
+}
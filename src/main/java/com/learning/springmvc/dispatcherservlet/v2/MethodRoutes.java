@@ -0,0 +1,102 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.collect.Lists;
+import com.learning.springmvc.annotation.RequestMethod;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 02:45
+ * @description: 同一路径下按请求方法区分的handler，路由索引先按路径找到该对象，再按请求方法的下标直接取出handler
+ * 变量名不同但形状相同的模板属于同一路径，如GET /users/{id}和PUT /users/{userId}，每个handler保留自己的url模板提取变量
+ * 没有指定method的handler处理其余所有方法(OPTIONS和TRACE除外)；没有单独映射HEAD时使用GET的handler
+ */
+class MethodRoutes {
+
+    private static final RequestMethod[] METHODS = RequestMethod.values();
+
+    /**
+     * 第一个注册的handler的url，用于注册到路由索引
+     */
+    private final String url;
+
+    private final HandlerMapping[] handlers = new HandlerMapping[METHODS.length];
+
+    /**
+     * 没有指定method的handler
+     */
+    private HandlerMapping fallback;
+
+    /**
+     * 405和OPTIONS响应中的Allow头
+     */
+    private String allow;
+
+    MethodRoutes(String url) {
+        this.url = url;
+    }
+
+    /**
+     * 注册handler，同一路径的同一请求方法只能有一个handler
+     *
+     * @param handlerMapping
+     */
+    void add(HandlerMapping handlerMapping) {
+        if (handlerMapping.requestMethods.length == 0) {
+            if (Objects.nonNull(fallback)) {
+                throw new IllegalStateException("重复的路由:" + handlerMapping.url + "与" + fallback.url);
+            }
+            fallback = handlerMapping;
+            return;
+        }
+        for (RequestMethod requestMethod : handlerMapping.requestMethods) {
+            HandlerMapping existing = handlers[requestMethod.ordinal()];
+            if (Objects.nonNull(existing)) {
+                throw new IllegalStateException("重复的路由:" + requestMethod + " " + handlerMapping.url + "与" + existing.url);
+            }
+            handlers[requestMethod.ordinal()] = handlerMapping;
+        }
+    }
+
+    /**
+     * 注册完成后补全未单独映射的请求方法，并生成Allow头
+     */
+    void seal() {
+        for (RequestMethod requestMethod : METHODS) {
+            if (Objects.isNull(handlers[requestMethod.ordinal()]) && requestMethod != RequestMethod.OPTIONS
+                    && requestMethod != RequestMethod.TRACE) {
+                handlers[requestMethod.ordinal()] = fallback;
+            }
+        }
+        if (Objects.isNull(handlers[RequestMethod.HEAD.ordinal()])) {
+            handlers[RequestMethod.HEAD.ordinal()] = handlers[RequestMethod.GET.ordinal()];
+        }
+        List<String> allowed = Lists.newArrayList();
+        for (RequestMethod requestMethod : METHODS) {
+            if (Objects.nonNull(handlers[requestMethod.ordinal()]) || requestMethod == RequestMethod.OPTIONS) {
+                allowed.add(requestMethod.name());
+            }
+        }
+        allow = String.join(", ", allowed);
+    }
+
+    /**
+     * 获取请求方法对应的handler
+     *
+     * @param requestMethod
+     * @return 该路径不支持此请求方法时返回null
+     */
+    HandlerMapping get(RequestMethod requestMethod) {
+        return handlers[requestMethod.ordinal()];
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    String getAllow() {
+        return allow;
+    }
+}
@@ -0,0 +1,169 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.HttpServletResponse;
+
+import com.google.common.cache.CacheStats;
+import com.learning.springmvc.annotation.DevRequestMapping;
+import com.learning.springmvc.annotation.RequestMethod;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 21:15
+ * @description: 以Prometheus文本格式输出路由指标、路由缓存、响应缓存和offload执行器的统计
+ * 默认关闭，启用后作为普通的GET路由注册，与其他路由一样按请求方法分发并经过handler拦截器
+ */
+class MetricsEndpoint {
+
+    static final String PATH = "/__metrics";
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000D;
+
+    private final Collection<HandlerMapping> handlerMappings;
+
+    private final RouteIndex<?> routeIndex;
+
+    private final OffloadExecutor offloadExecutor;
+
+    private final ResponseCache responseCache;
+
+    private final LongAdder unmatched;
+
+    MetricsEndpoint(Collection<HandlerMapping> handlerMappings, RouteIndex<?> routeIndex,
+                    OffloadExecutor offloadExecutor, ResponseCache responseCache, LongAdder unmatched) {
+        this.handlerMappings = handlerMappings;
+        this.routeIndex = routeIndex;
+        this.offloadExecutor = offloadExecutor;
+        this.responseCache = responseCache;
+        this.unmatched = unmatched;
+    }
+
+    /**
+     * 端点的handler，HEAD请求使用同一个handler
+     *
+     * @param resp
+     * @throws IOException
+     */
+    @DevRequestMapping(value = PATH, method = RequestMethod.GET)
+    public void handle(HttpServletResponse resp) throws IOException {
+        resp.setContentType(CONTENT_TYPE);
+        write(resp.getWriter());
+    }
+
+    void write(PrintWriter writer) {
+        header(writer, "dev_mvc_requests_total", "counter", "Requests handled by route.");
+        for (HandlerMapping handlerMapping : handlerMappings) {
+            sample(writer, "dev_mvc_requests_total", labels(handlerMapping), null, handlerMapping.metrics.getRequests());
+        }
+        header(writer, "dev_mvc_request_errors_total", "counter", "Requests answered with status >= 400 by route.");
+        for (HandlerMapping handlerMapping : handlerMappings) {
+            sample(writer, "dev_mvc_request_errors_total", labels(handlerMapping), null, handlerMapping.metrics.getErrors());
+        }
+        header(writer, "dev_mvc_requests_in_flight", "gauge", "Requests currently being handled by route.");
+        for (HandlerMapping handlerMapping : handlerMappings) {
+            sample(writer, "dev_mvc_requests_in_flight", labels(handlerMapping), null, handlerMapping.metrics.getInFlight());
+        }
+        header(writer, "dev_mvc_request_duration_seconds", "summary", "Request latency by route, quantiles are bucket upper bounds.");
+        for (HandlerMapping handlerMapping : handlerMappings) {
+            LatencyHistogram latency = handlerMapping.metrics.getLatency();
+            long[] snapshot = latency.snapshot();
+            long total = LatencyHistogram.total(snapshot);
+            for (double quantile : QUANTILES) {
+                sample(writer, "dev_mvc_request_duration_seconds", labels(handlerMapping), quantile,
+                        LatencyHistogram.valueAtQuantile(snapshot, total, quantile) / NANOS_PER_SECOND);
+            }
+            sample(writer, "dev_mvc_request_duration_seconds_sum", labels(handlerMapping), null, latency.getSum() / NANOS_PER_SECOND);
+            sample(writer, "dev_mvc_request_duration_seconds_count", labels(handlerMapping), null, total);
+        }
+        header(writer, "dev_mvc_unmatched_requests_total", "counter", "Requests without a matching route.");
+        sample(writer, "dev_mvc_unmatched_requests_total", null, null, unmatched.sum());
+
+        CacheStats cacheStats = routeIndex.cacheStats();
+        header(writer, "dev_mvc_route_cache_hits_total", "counter", "Pattern route cache hits.");
+        sample(writer, "dev_mvc_route_cache_hits_total", null, null, cacheStats.hitCount());
+        header(writer, "dev_mvc_route_cache_misses_total", "counter", "Pattern route cache misses.");
+        sample(writer, "dev_mvc_route_cache_misses_total", null, null, cacheStats.missCount());
+        header(writer, "dev_mvc_route_cache_evictions_total", "counter", "Pattern route cache evictions.");
+        sample(writer, "dev_mvc_route_cache_evictions_total", null, null, cacheStats.evictionCount());
+
+        if (Objects.nonNull(responseCache)) {
+            CacheStats responseStats = responseCache.stats();
+            long lookups = responseStats.requestCount();
+            header(writer, "dev_mvc_response_cache_hits_total", "counter", "Cacheable GET requests served from the response cache.");
+            sample(writer, "dev_mvc_response_cache_hits_total", null, null, responseStats.hitCount());
+            header(writer, "dev_mvc_response_cache_misses_total", "counter", "Cacheable GET requests that ran the handler.");
+            sample(writer, "dev_mvc_response_cache_misses_total", null, null, responseStats.missCount());
+            header(writer, "dev_mvc_response_cache_hit_ratio", "gauge", "Response cache hits divided by lookups since startup.");
+            sample(writer, "dev_mvc_response_cache_hit_ratio", null, null, lookups == 0 ? 0D : (double) responseStats.hitCount() / lookups);
+            header(writer, "dev_mvc_response_cache_evictions_total", "counter", "Response cache entries evicted by weight.");
+            sample(writer, "dev_mvc_response_cache_evictions_total", null, null, responseStats.evictionCount());
+            header(writer, "dev_mvc_response_cache_entries", "gauge", "Response cache entries.");
+            sample(writer, "dev_mvc_response_cache_entries", null, null, responseCache.getSize());
+        }
+
+        if (Objects.nonNull(offloadExecutor)) {
+            header(writer, "dev_mvc_offload_queue_depth", "gauge", "Offloaded handlers waiting for a thread.");
+            sample(writer, "dev_mvc_offload_queue_depth", null, null, offloadExecutor.getQueueDepth());
+            header(writer, "dev_mvc_offload_active", "gauge", "Offloaded handlers currently running.");
+            sample(writer, "dev_mvc_offload_active", null, null, offloadExecutor.getActiveCount());
+            header(writer, "dev_mvc_offload_completed_total", "counter", "Offloaded handlers completed.");
+            sample(writer, "dev_mvc_offload_completed_total", null, null, offloadExecutor.getCompletedCount());
+            header(writer, "dev_mvc_offload_rejected_total", "counter", "Offloaded handlers rejected by the executor.");
+            sample(writer, "dev_mvc_offload_rejected_total", null, null, offloadExecutor.getRejectedCount());
+        }
+        writer.flush();
+    }
+
+    private static void header(PrintWriter writer, String name, String type, String help) {
+        writer.print("# HELP " + name + " " + help + "\n");
+        writer.print("# TYPE " + name + " " + type + "\n");
+    }
+
+    /**
+     * 路由的label，同一路径按请求方法映射到多个handler时用method区分，*表示所有方法
+     *
+     * @param handlerMapping
+     * @return
+     */
+    private static String labels(HandlerMapping handlerMapping) {
+        String method = handlerMapping.requestMethods.length == 0 ? "*"
+                : Arrays.stream(handlerMapping.requestMethods).map(Enum::name).collect(Collectors.joining(","));
+        return "route=\"" + escape(handlerMapping.url) + "\",method=\"" + method + "\"";
+    }
+
+    private static void sample(PrintWriter writer, String name, String labels, Double quantile, double value) {
+        writer.print(name);
+        if (Objects.nonNull(labels)) {
+            writer.print("{" + labels);
+            if (Objects.nonNull(quantile)) {
+                writer.print(",quantile=\"" + quantile + "\"");
+            }
+            writer.print("}");
+        }
+        writer.print(" ");
+        writer.print(value == Math.rint(value) && !Double.isInfinite(value) ? String.valueOf((long) value) : String.format(Locale.ROOT, "%.9f", value));
+        writer.print("\n");
+    }
+
+    /**
+     * 转义label中的反斜杠、双引号和换行
+     *
+     * @param value
+     * @return
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
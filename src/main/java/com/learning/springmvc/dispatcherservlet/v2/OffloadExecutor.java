@@ -0,0 +1,127 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 20:20
+ * @description: 执行@DevOffload handler的执行器
+ * pool模式使用有界线程池，队列满时拒绝；virtual模式在jdk21及以上为每个请求创建一个虚拟线程，低版本jdk退化为pool模式
+ * 同时统计排队数、执行中数量、完成数和拒绝数
+ */
+class OffloadExecutor {
+
+    static final String MODE_POOL = "pool";
+
+    static final String MODE_VIRTUAL = "virtual";
+
+    private final ExecutorService executor;
+
+    private final String mode;
+
+    /**
+     * 已提交但还未开始执行的任务数
+     */
+    private final LongAdder queued = new LongAdder();
+
+    private final LongAdder active = new LongAdder();
+
+    private final LongAdder completed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private OffloadExecutor(ExecutorService executor, String mode) {
+        this.executor = executor;
+        this.mode = mode;
+    }
+
+    /**
+     * 创建执行器
+     *
+     * @param mode      pool或virtual
+     * @param threads   pool模式的线程数
+     * @param queueSize pool模式的队列长度
+     * @return
+     */
+    static OffloadExecutor create(String mode, int threads, int queueSize) {
+        if (MODE_VIRTUAL.equals(mode)) {
+            try {
+                // 通过反射调用，保持jdk8编译
+                ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                return new OffloadExecutor(executor, MODE_VIRTUAL);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Virtual threads unavailable, fallback to pool: " + e);
+            }
+        } else if (!MODE_POOL.equals(mode)) {
+            throw new IllegalArgumentException("不支持的offload执行器类型:" + mode);
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat("dev-offload-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        return new OffloadExecutor(executor, MODE_POOL);
+    }
+
+    /**
+     * 提交任务，执行器已满或已关闭时抛出RejectedExecutionException
+     *
+     * @param task
+     */
+    void execute(Runnable task) {
+        queued.increment();
+        try {
+            executor.execute(() -> {
+                queued.decrement();
+                active.increment();
+                try {
+                    task.run();
+                } finally {
+                    active.decrement();
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrement();
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    String getMode() {
+        return mode;
+    }
+
+    long getQueueDepth() {
+        return queued.sum();
+    }
+
+    long getActiveCount() {
+        return active.sum();
+    }
+
+    long getCompletedCount() {
+        return completed.sum();
+    }
+
+    long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "OffloadExecutor{mode=" + mode + ", queued=" + getQueueDepth() + ", active=" + getActiveCount()
+                + ", completed=" + getCompletedCount() + ", rejected=" + getRejectedCount() + "}";
+    }
+}
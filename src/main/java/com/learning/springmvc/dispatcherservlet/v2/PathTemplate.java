@@ -0,0 +1,210 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 03:05
+ * @description: url模板，如/users/{id}/orders/{orderId}，变量必须占据完整的一段
+ * 在initHandlerMapping阶段编译，记录每个变量所在段的下标，请求时按"/"切分后直接按下标取值，不经过正则
+ */
+final class PathTemplate {
+
+    /**
+     * 保存本次请求提取出的变量值的request属性，值为按变量顺序排列的String[]
+     */
+    static final String VARIABLES_ATTRIBUTE = PathTemplate.class.getName() + ".VARIABLES";
+
+    private static final char SEPARATOR = '/';
+
+    private final String url;
+
+    /**
+     * 变量名，按在url中出现的顺序
+     */
+    private final String[] names;
+
+    /**
+     * 变量所在段的下标，与names一一对应
+     */
+    private final int[] segmentIndexes;
+
+    private PathTemplate(String url, String[] names, int[] segmentIndexes) {
+        this.url = url;
+        this.names = names;
+        this.segmentIndexes = segmentIndexes;
+    }
+
+    /**
+     * 编译url模板
+     *
+     * @param url
+     * @return 不是模板时返回null
+     */
+    static PathTemplate compile(String url) {
+        if (!isTemplate(url)) {
+            return null;
+        }
+        List<String> segments = split(url);
+        List<String> names = Lists.newArrayList();
+        List<Integer> indexes = Lists.newArrayList();
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (isVariable(segment)) {
+                String name = segment.substring(1, segment.length() - 1);
+                if (names.contains(name)) {
+                    throw new IllegalArgumentException("url模板中存在重复的变量" + name + ":" + url);
+                }
+                names.add(name);
+                indexes.add(i);
+            }
+        }
+        return new PathTemplate(url, names.toArray(new String[0]), indexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * 至少包含一个变量段，其余各段都是普通字符时才按模板处理，否则仍按正则处理
+     *
+     * @param url
+     * @return
+     */
+    static boolean isTemplate(String url) {
+        if (url.isEmpty() || url.indexOf('{') < 0) {
+            return false;
+        }
+        boolean variable = false;
+        for (String segment : split(url)) {
+            if (isVariable(segment)) {
+                variable = true;
+            } else if (!RouteIndex.isLiteral(segment)) {
+                return false;
+            }
+        }
+        return variable;
+    }
+
+    /**
+     * 路由的匹配形状，模板中的变量段统一替换为{}，只用于把变量名不同的同一路径归为一组
+     * 例如/users/{id}和/users/{userId}的形状都是/users/{}
+     *
+     * @param url
+     * @return 不是模板时返回url本身
+     */
+    static String shape(String url) {
+        if (!isTemplate(url)) {
+            return url;
+        }
+        StringBuilder shape = new StringBuilder(url.length());
+        for (String segment : split(url)) {
+            shape.append(SEPARATOR).append(isVariable(segment) ? "{}" : segment);
+        }
+        return shape.toString();
+    }
+
+    /**
+     * 形如{name}的段，name只能由字母、数字和下划线组成且不以数字开头，避免与正则的{n}、{n,m}混淆
+     *
+     * @param segment
+     * @return
+     */
+    static boolean isVariable(String segment) {
+        int length = segment.length();
+        if (length < 3 || segment.charAt(0) != '{' || segment.charAt(length - 1) != '}'
+                || !Character.isJavaIdentifierStart(segment.charAt(1))) {
+            return false;
+        }
+        for (int i = 2; i < length - 1; i++) {
+            char c = segment.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 去掉开头的"/"后按"/"切分，保留空段
+     *
+     * @param url
+     * @return
+     */
+    static List<String> split(String url) {
+        List<String> segments = Lists.newArrayList();
+        int start = !url.isEmpty() && url.charAt(0) == SEPARATOR ? 1 : 0;
+        while (true) {
+            int end = url.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                segments.add(url.substring(start));
+                return segments;
+            }
+            segments.add(url.substring(start, end));
+            start = end + 1;
+        }
+    }
+
+    /**
+     * 变量在模板中的位置
+     *
+     * @param name
+     * @return 不存在时返回-1
+     */
+    int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 从已经由路由索引匹配过的url中提取变量值，只切分到最后一个变量所在的段
+     *
+     * @param requestUrl
+     * @return
+     */
+    String[] extract(String requestUrl) {
+        String[] values = new String[names.length];
+        int segment = 0;
+        int variable = 0;
+        int start = 1;
+        while (variable < values.length) {
+            int end = requestUrl.indexOf(SEPARATOR, start);
+            if (segment == segmentIndexes[variable]) {
+                values[variable++] = decode(end < 0 ? requestUrl.substring(start) : requestUrl.substring(start, end));
+            }
+            if (end < 0) {
+                break;
+            }
+            segment++;
+            start = end + 1;
+        }
+        return values;
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    /**
+     * 请求uri中的段是百分号编码的，"+"在路径中不表示空格
+     *
+     * @param value
+     * @return
+     */
+    private static String decode(String value) {
+        if (value.indexOf('%') < 0) {
+            return value;
+        }
+        try {
+            return URLDecoder.decode(value.replace("+", "%2B"), StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+import com.learning.springmvc.http.EncodedBody;
+import com.learning.springmvc.json.JsonMapper;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 02:25
+ * @description: 标注了@DevCacheable的handler的响应缓存，缓存内容为编码好的响应体和ETag，命中时不再执行handler也不再序列化
+ * 按响应体字节数加权，总权重超过上限时由Guava按LRU淘汰；各路由的ttl不同，过期时间保存在条目中，读取时判断
+ * 命中、未命中和淘汰次数使用Guava的统计
+ */
+class ResponseCache {
+
+    /**
+     * 每个条目除响应体外的大致开销，避免大量空响应不计权重
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final Cache<Key, Entry> cache;
+
+    private final JsonMapper jsonMapper;
+
+    /**
+     * 读取到已过期条目的次数，Guava不知道条目的过期时间，会把这些读取记为命中
+     */
+    private final LongAdder expiredReads = new LongAdder();
+
+    ResponseCache(long maxWeight, JsonMapper jsonMapper) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, Entry entry) -> entry.body.getContentLength() + ENTRY_OVERHEAD)
+                .recordStats()
+                .build();
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * 查找未过期的缓存
+     *
+     * @param key
+     * @return 未命中时返回null
+     */
+    Entry get(Key key) {
+        Entry entry = cache.getIfPresent(key);
+        if (Objects.nonNull(entry) && entry.expiresAt - System.nanoTime() <= 0) {
+            // 只移除过期的条目，不影响其他请求刚放入的新条目
+            cache.asMap().remove(key, entry);
+            expiredReads.increment();
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 编码handler的返回值并按路由的ttl放入缓存
+     *
+     * @param key
+     * @param result
+     * @return
+     */
+    Entry put(Key key, Object result) {
+        Entry entry = new Entry(encode(result), System.nanoTime() + key.route.cacheTtl);
+        cache.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * 写出缓存的响应，If-None-Match与ETag匹配时只返回304，HEAD请求只设置响应头
+     *
+     * @param req
+     * @param resp
+     * @param entry
+     * @param head
+     * @throws IOException
+     */
+    static void write(HttpServletRequest req, HttpServletResponse resp, Entry entry, boolean head) throws IOException {
+        resp.setHeader("ETag", entry.etag);
+        if (matches(req.getHeader("If-None-Match"), entry.etag)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        if (head) {
+            entry.body.writeHeaders(resp);
+            return;
+        }
+        entry.body.writeTo(resp);
+    }
+
+    /**
+     * Guava的统计，读取到过期条目时从命中转为未命中
+     *
+     * @return
+     */
+    CacheStats stats() {
+        // 先读取过期次数，其中每一次对应的命中都已经计入Guava的统计
+        long expired = expiredReads.sum();
+        CacheStats stats = cache.stats();
+        return new CacheStats(Math.max(stats.hitCount() - expired, 0), stats.missCount() + expired, stats.loadSuccessCount(),
+                stats.loadExceptionCount(), stats.totalLoadTime(), stats.evictionCount());
+    }
+
+    long getSize() {
+        return cache.size();
+    }
+
+    private EncodedBody encode(Object result) {
+        return Objects.isNull(result) ? EncodedBody.text("") : ResultWriter.encode(result, jsonMapper);
+    }
+
+    /**
+     * 支持*和逗号分隔的多个ETag，弱校验比较时忽略W/前缀
+     *
+     * @param ifNoneMatch
+     * @param etag
+     * @return
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (StringUtils.isBlank(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : StringUtils.split(ifNoneMatch, ',')) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 缓存key，路由按引用比较，参数值按内容比较(数组逐个元素比较)
+     */
+    static final class Key {
+
+        private final HandlerMapping route;
+
+        private final Object[] args;
+
+        private final int hash;
+
+        Key(HandlerMapping route, Object[] args) {
+            this.route = route;
+            this.args = args;
+            this.hash = 31 * System.identityHashCode(route) + Arrays.deepHashCode(args);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return route == that.route && hash == that.hash && Arrays.deepEquals(args, that.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 编码好的响应体、ETag和过期时间
+     */
+    static final class Entry {
+
+        private final EncodedBody body;
+
+        private final String etag;
+
+        private final long expiresAt;
+
+        Entry(EncodedBody body, long expiresAt) {
+            this.body = body;
+            this.etag = "\"" + Hashing.murmur3_128().hashBytes(body.toByteArray()).toString() + "\"";
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import javax.servlet.http.HttpServletResponse;
+
+import com.learning.springmvc.http.ChunkSource;
+import com.learning.springmvc.http.EncodedBody;
+import com.learning.springmvc.json.JsonMapper;
+import com.learning.springmvc.json.JsonOutput;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 23:55
+ * @description: 返回值写出器，构建HandlerMapping时按方法的返回类型确定
+ * byte[]、ByteBuffer和EncodedBody直接写入getOutputStream，其他类型按UTF-8编码一次后写出，都带有准确的Content-Length
+ * Stream、Iterator和ChunkSource按分块写出，不设置Content-Length
+ * 字符串、数字等标量按文本输出，其他对象(bean、集合、Map)通过JsonMapper序列化为json
+ * 返回类型在编译期无法确定时(Object、CompletionStage)在运行时按实际类型选择
+ */
+interface ResultWriter {
+
+    ResultWriter NONE = (resp, result) -> {
+    };
+
+    ResultWriter BYTES = (resp, result) -> {
+        byte[] bytes = (byte[]) result;
+        writeBytes(resp, EncodedBody.OCTET_STREAM, bytes, 0, bytes.length);
+    };
+
+    ResultWriter BYTE_BUFFER = (resp, result) -> {
+        // 使用副本读取，常量ByteBuffer可以在多个请求之间复用
+        ByteBuffer buffer = ((ByteBuffer) result).duplicate();
+        if (buffer.hasArray()) {
+            writeBytes(resp, EncodedBody.OCTET_STREAM, buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            return;
+        }
+        prepare(resp, EncodedBody.OCTET_STREAM, buffer.remaining());
+        Channels.newChannel(resp.getOutputStream()).write(buffer);
+    };
+
+    ResultWriter ENCODED = (resp, result) -> ((EncodedBody) result).writeTo(resp);
+
+    ResultWriter TEXT = (resp, result) -> {
+        String text = result.toString();
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        OutputStream outputStream;
+        try {
+            outputStream = resp.getOutputStream();
+        } catch (IllegalStateException e) {
+            // handler已经通过getWriter输出过内容，只能继续使用writer
+            resp.getWriter().write(text);
+            return;
+        }
+        prepare(resp, EncodedBody.TEXT_PLAIN, bytes.length);
+        outputStream.write(bytes);
+    };
+
+    /**
+     * 阻塞方式写出流式响应，容器支持异步时由StreamingWriter以非阻塞方式写出
+     */
+    ResultWriter STREAM = (resp, result) -> StreamingWriter.writeBlocking(resp, ChunkSource.from(result));
+
+    /**
+     * 写出返回值，返回值为null时不输出
+     *
+     * @param resp
+     * @param result
+     * @throws IOException
+     */
+    void write(HttpServletResponse resp, Object result) throws IOException;
+
+    /**
+     * 按方法声明的返回类型选择写出器
+     *
+     * @param returnType
+     * @param jsonMapper
+     * @return
+     */
+    static ResultWriter forType(Class<?> returnType, JsonMapper jsonMapper) {
+        if (returnType == void.class || returnType == Void.class) {
+            return NONE;
+        }
+        if (returnType == byte[].class) {
+            return nullSafe(BYTES);
+        }
+        if (ByteBuffer.class.isAssignableFrom(returnType)) {
+            return nullSafe(BYTE_BUFFER);
+        }
+        if (returnType == EncodedBody.class) {
+            return nullSafe(ENCODED);
+        }
+        if (ChunkSource.isStreaming(returnType)) {
+            return nullSafe(STREAM);
+        }
+        if (isText(returnType)) {
+            return nullSafe(TEXT);
+        }
+        if (returnType == Object.class || returnType.isInterface() && !Iterable.class.isAssignableFrom(returnType)
+                && !Map.class.isAssignableFrom(returnType)) {
+            return dynamic(jsonMapper);
+        }
+        return nullSafe(json(jsonMapper));
+    }
+
+    /**
+     * 按返回值的实际类型选择写出器
+     *
+     * @param result
+     * @param jsonMapper
+     * @return
+     */
+    static ResultWriter forValue(Object result, JsonMapper jsonMapper) {
+        if (Objects.isNull(result)) {
+            return NONE;
+        }
+        if (result instanceof byte[]) {
+            return BYTES;
+        }
+        if (result instanceof ByteBuffer) {
+            return BYTE_BUFFER;
+        }
+        if (result instanceof EncodedBody) {
+            return ENCODED;
+        }
+        if (ChunkSource.isStreaming(result)) {
+            return STREAM;
+        }
+        return isText(result.getClass()) ? TEXT : json(jsonMapper);
+    }
+
+    static ResultWriter dynamic(JsonMapper jsonMapper) {
+        return (resp, result) -> forValue(result, jsonMapper).write(resp, result);
+    }
+
+    /**
+     * 序列化到当前线程复用的缓冲区，得到长度后一次写出
+     *
+     * @param jsonMapper
+     * @return
+     */
+    static ResultWriter json(JsonMapper jsonMapper) {
+        return (resp, result) -> {
+            JsonOutput output = jsonMapper.localOutput();
+            try {
+                jsonMapper.write(result, output);
+                OutputStream outputStream = resp.getOutputStream();
+                prepare(resp, JsonMapper.CONTENT_TYPE, output.size());
+                output.writeTo(outputStream);
+            } finally {
+                output.reset();
+            }
+        };
+    }
+
+    /**
+     * 设置与write一致的响应头，用于HEAD请求，不编码返回值
+     * 已经是字节形式的返回值同时设置Content-Length，需要序列化的文本和json不设置
+     *
+     * @param resp
+     * @param result 非null且不是流式类型
+     */
+    static void writeHeaders(HttpServletResponse resp, Object result) {
+        if (result instanceof EncodedBody) {
+            ((EncodedBody) result).writeHeaders(resp);
+        } else if (result instanceof byte[]) {
+            prepare(resp, EncodedBody.OCTET_STREAM, ((byte[]) result).length);
+        } else if (result instanceof ByteBuffer) {
+            prepare(resp, EncodedBody.OCTET_STREAM, ((ByteBuffer) result).remaining());
+        } else if (Objects.isNull(resp.getContentType())) {
+            resp.setContentType(isText(result.getClass()) ? EncodedBody.TEXT_PLAIN : JsonMapper.CONTENT_TYPE);
+        }
+    }
+
+    /**
+     * 把非流式的返回值编码为完整的响应体，与write的输出内容和Content-Type一致，用于写入响应缓存
+     *
+     * @param result     非null且不是流式类型
+     * @param jsonMapper
+     * @return
+     */
+    static EncodedBody encode(Object result, JsonMapper jsonMapper) {
+        if (result instanceof EncodedBody) {
+            return (EncodedBody) result;
+        }
+        if (result instanceof byte[]) {
+            return EncodedBody.of((byte[]) result, EncodedBody.OCTET_STREAM);
+        }
+        if (result instanceof ByteBuffer) {
+            ByteBuffer buffer = ((ByteBuffer) result).duplicate();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return EncodedBody.of(bytes, EncodedBody.OCTET_STREAM);
+        }
+        if (isText(result.getClass())) {
+            return EncodedBody.text(result.toString());
+        }
+        return EncodedBody.of(jsonMapper.writeValueAsBytes(result), JsonMapper.CONTENT_TYPE);
+    }
+
+    /**
+     * 按文本输出的标量类型，保持toString的输出方式
+     *
+     * @param type
+     * @return
+     */
+    static boolean isText(Class<?> type) {
+        return type.isPrimitive() || CharSequence.class.isAssignableFrom(type) || Number.class.isAssignableFrom(type)
+                || type == Boolean.class || type == Character.class || Enum.class.isAssignableFrom(type) || TemporalAccessor.class.isAssignableFrom(type)
+                || Date.class.isAssignableFrom(type) || type == UUID.class;
+    }
+
+    static ResultWriter nullSafe(ResultWriter writer) {
+        return (resp, result) -> {
+            if (Objects.nonNull(result)) {
+                writer.write(resp, result);
+            }
+        };
+    }
+
+    static void writeBytes(HttpServletResponse resp, String contentType, byte[] bytes, int offset, int length) throws IOException {
+        OutputStream outputStream = resp.getOutputStream();
+        prepare(resp, contentType, length);
+        outputStream.write(bytes, offset, length);
+    }
+
+    /**
+     * 设置Content-Type和Content-Length，handler已经设置过Content-Type时不覆盖
+     *
+     * @param resp
+     * @param contentType
+     * @param length
+     */
+    static void prepare(HttpServletResponse resp, String contentType, int length) {
+        if (Objects.isNull(resp.getContentType())) {
+            resp.setContentType(contentType);
+        }
+        resp.setContentLength(length);
+    }
+}
@@ -0,0 +1,313 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 10:20
+ * @description: 路由索引，在initHandlerMapping阶段构建
+ * 普通url直接放入HashMap，一次哈希即可命中，与v1版本的handlerMapping思路一致
+ * url模板(如/users/{id})按段挂在前缀树上，变量段共用一个子节点，查找时普通段优先于变量段，不经过正则
+ * 含有正则的url按照"/"切分出静态前缀后挂在前缀树对应的节点上，查找时从最深的节点开始尝试，保证最具体的路由优先匹配
+ * 正则匹配成功的url会放入有界的LRU缓存，避免相同url重复走正则，缓存容量固定，不会被url扫描撑爆
+ */
+class RouteIndex<T> {
+
+    /**
+     * 正则元字符，url中出现任意一个都按照正则处理
+     */
+    private static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}";
+
+    private static final char SEPARATOR = '/';
+
+    /**
+     * 普通url的精确匹配表
+     */
+    private final Map<String, T> exactRoutes = Maps.newHashMap();
+
+    /**
+     * 正则路由前缀树的根节点
+     */
+    private final Node<T> root = new Node<>();
+
+    /**
+     * 正则匹配结果缓存，url -> 处理器，只缓存命中的结果
+     */
+    private final Cache<String, T> resolvedCache;
+
+    /**
+     * 注册顺序，用于在具体程度相同时保证匹配结果稳定
+     */
+    private int order;
+
+    /**
+     * 是否注册过url模板，没有时查找跳过模板匹配
+     */
+    private boolean hasTemplates;
+
+    /**
+     * 是否推迟正则的编译，从启动快照恢复的路由已经校验过，第一次匹配时再编译
+     */
+    private final boolean lazyPatterns;
+
+    RouteIndex(long cacheSize, boolean lazyPatterns) {
+        this.lazyPatterns = lazyPatterns;
+        this.resolvedCache = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 注册路由
+     *
+     * @param url
+     * @param handler
+     */
+    void register(String url, T handler) {
+        if (isLiteral(url)) {
+            if (Objects.nonNull(exactRoutes.putIfAbsent(url, handler))) {
+                throw new IllegalArgumentException("已存在相同url请求:" + url);
+            }
+            return;
+        }
+        if (PathTemplate.isTemplate(url)) {
+            registerTemplate(url, handler);
+            return;
+        }
+
+        // 正则路由挂在静态前缀的最后一个节点上
+        Node<T> node = root;
+        if (url.indexOf('|') < 0) {
+            for (String segment : PathTemplate.split(url)) {
+                if (!isLiteral(segment)) {
+                    break;
+                }
+                node = node.children.computeIfAbsent(segment, key -> new Node<>());
+            }
+        }
+        for (PatternRoute<T> route : node.patterns) {
+            if (route.regex.equals(url)) {
+                throw new IllegalArgumentException("已存在相同url请求:" + url);
+            }
+        }
+        PatternRoute<T> route = new PatternRoute<>(url, handler, literalChars(url), order++);
+        if (!lazyPatterns) {
+            route.compile();
+        }
+        node.patterns.add(route);
+        node.patterns.sort(PatternRoute.SPECIFIC_FIRST);
+    }
+
+    /**
+     * 变量名不影响匹配，变量段位置相同的模板视为重复
+     *
+     * @param url
+     * @param handler
+     */
+    private void registerTemplate(String url, T handler) {
+        Node<T> node = root;
+        for (String segment : PathTemplate.split(url)) {
+            if (PathTemplate.isVariable(segment)) {
+                if (Objects.isNull(node.variable)) {
+                    node.variable = new Node<>();
+                }
+                node = node.variable;
+            } else {
+                node = node.children.computeIfAbsent(segment, key -> new Node<>());
+            }
+        }
+        if (Objects.nonNull(node.template)) {
+            throw new IllegalArgumentException("已存在相同url请求:" + url + "与" + node.templateUrl);
+        }
+        node.template = handler;
+        node.templateUrl = url;
+        hasTemplates = true;
+    }
+
+    /**
+     * 查找url对应的处理器，不存在时返回null
+     * 先精确匹配，再查缓存，然后匹配url模板，最后才走正则
+     * 模板匹配只是一次前缀树遍历，结果不放入缓存，避免/users/1、/users/2这类url把正则的缓存挤掉
+     *
+     * @param url
+     * @return
+     */
+    T lookup(String url) {
+        T handler = exactRoutes.get(url);
+        if (Objects.nonNull(handler)) {
+            return handler;
+        }
+        handler = resolvedCache.getIfPresent(url);
+        if (Objects.nonNull(handler)) {
+            return handler;
+        }
+        if (hasTemplates && !url.isEmpty() && url.charAt(0) == SEPARATOR) {
+            handler = matchTemplate(root, url, 1);
+            if (Objects.nonNull(handler)) {
+                return handler;
+            }
+        }
+        handler = matchPattern(url);
+        if (Objects.nonNull(handler)) {
+            resolvedCache.put(url, handler);
+        }
+        return handler;
+    }
+
+    /**
+     * 正则匹配结果缓存的命中统计
+     *
+     * @return
+     */
+    CacheStats cacheStats() {
+        return resolvedCache.stats();
+    }
+
+    /**
+     * 从start开始匹配一段，普通段的子节点优先，匹配失败时再尝试变量段，变量段不匹配空段
+     *
+     * @param node
+     * @param url
+     * @param start
+     * @return
+     */
+    private T matchTemplate(Node<T> node, String url, int start) {
+        int end = url.indexOf(SEPARATOR, start);
+        String segment = end < 0 ? url.substring(start) : url.substring(start, end);
+        T handler = matchTemplateChild(node.children.get(segment), url, end);
+        if (Objects.isNull(handler) && !segment.isEmpty()) {
+            handler = matchTemplateChild(node.variable, url, end);
+        }
+        return handler;
+    }
+
+    private T matchTemplateChild(Node<T> child, String url, int end) {
+        if (Objects.isNull(child)) {
+            return null;
+        }
+        return end < 0 ? child.template : matchTemplate(child, url, end + 1);
+    }
+
+    private T matchPattern(String url) {
+        if (url.isEmpty() || url.charAt(0) != SEPARATOR) {
+            return null;
+        }
+        // 记录沿途经过的节点，正则路由从最深的节点往回尝试
+        List<Node<T>> path = Lists.newArrayList(root);
+        Node<T> node = root;
+        int start = 1;
+        int end;
+        do {
+            end = url.indexOf(SEPARATOR, start);
+            String segment = end < 0 ? url.substring(start) : url.substring(start, end);
+            node = node.children.get(segment);
+            if (Objects.nonNull(node)) {
+                path.add(node);
+            }
+            start = end + 1;
+        } while (end >= 0 && Objects.nonNull(node));
+
+        for (int i = path.size() - 1; i >= 0; i--) {
+            for (PatternRoute<T> route : path.get(i).patterns) {
+                if (route.matches(url)) {
+                    return route.handler;
+                }
+            }
+        }
+        return null;
+    }
+
+    static boolean isLiteral(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (REGEX_META_CHARS.indexOf(value.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 统计正则中的普通字符数，字符越多说明路由越具体
+     *
+     * @param regex
+     * @return
+     */
+    private static int literalChars(String regex) {
+        int count = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            if (REGEX_META_CHARS.indexOf(regex.charAt(i)) < 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static class Node<T> {
+
+        private final Map<String, Node<T>> children = Maps.newHashMap();
+
+        /**
+         * 以当前节点为静态前缀的正则路由，按具体程度排序
+         */
+        private final List<PatternRoute<T>> patterns = Lists.newArrayList();
+
+        /**
+         * 变量段的子节点
+         */
+        private Node<T> variable;
+
+        /**
+         * 在当前节点结束的url模板
+         */
+        private T template;
+
+        private String templateUrl;
+    }
+
+    private static class PatternRoute<T> {
+
+        private static final Comparator<PatternRoute<?>> SPECIFIC_FIRST = Comparator
+                .comparingInt((PatternRoute<?> route) -> route.literalChars).reversed()
+                .thenComparing(Comparator.comparingInt((PatternRoute<?> route) -> route.regex.length()).reversed())
+                .thenComparingInt(route -> route.order);
+
+        private final String regex;
+        private final T handler;
+        private final int literalChars;
+        private final int order;
+        private volatile Pattern pattern;
+
+        private PatternRoute(String regex, T handler, int literalChars, int order) {
+            this.regex = regex;
+            this.handler = handler;
+            this.literalChars = literalChars;
+            this.order = order;
+        }
+
+        private Pattern compile() {
+            Pattern compiled = pattern;
+            if (Objects.isNull(compiled)) {
+                // 并发时可能重复编译，结果相同，无需加锁
+                compiled = Pattern.compile(regex);
+                pattern = compiled;
+            }
+            return compiled;
+        }
+
+        private boolean matches(String url) {
+            return compile().matcher(url).matches();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 21:00
+ * @description: 单个路由的请求指标，包括请求数、错误数、执行中的请求数和延迟直方图
+ * 计数器使用分段的LongAdder，高并发下不会在同一个缓存行上竞争
+ */
+class RouteMetrics {
+
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * 响应状态码大于等于400的请求数
+     */
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder inFlight = new LongAdder();
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * 请求开始
+     *
+     * @return 开始时间(纳秒)
+     */
+    long begin() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * 请求结束，同步请求在dispatch返回后调用，异步请求在AsyncContext完成后调用
+     *
+     * @param start
+     * @param status
+     */
+    void end(long start, int status) {
+        latency.record(System.nanoTime() - start);
+        inFlight.decrement();
+        requests.increment();
+        if (status >= 400) {
+            errors.increment();
+        }
+    }
+
+    long getRequests() {
+        return requests.sum();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    long getInFlight() {
+        return inFlight.sum();
+    }
+
+    LatencyHistogram getLatency() {
+        return latency;
+    }
+}
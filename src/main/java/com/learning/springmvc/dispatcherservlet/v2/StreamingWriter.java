@@ -0,0 +1,162 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+
+import com.learning.springmvc.http.ChunkSource;
+import com.learning.springmvc.http.EncodedBody;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 00:30
+ * @description: 流式响应写出器，基于Servlet 3.1的非阻塞WriteListener
+ * 只有在输出流isReady时才拉取下一个分块，客户端读得慢时停止拉取，等容器再次回调onWritePossible，内存占用与响应大小无关
+ * 不设置Content-Length，HTTP/1.1下由容器使用chunked传输编码
+ */
+class StreamingWriter implements WriteListener {
+
+    private final AsyncContext asyncContext;
+
+    private final HttpServletResponse resp;
+
+    private final ChunkSource source;
+
+    private final DispatchTracer.Trace trace;
+
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    private ServletOutputStream outputStream;
+
+    StreamingWriter(AsyncContext asyncContext, HttpServletResponse resp, ChunkSource source, DispatchTracer.Trace trace) {
+        this.asyncContext = asyncContext;
+        this.resp = resp;
+        this.source = source;
+        this.trace = trace;
+    }
+
+    /**
+     * 注册WriteListener，之后由容器在可写时回调
+     *
+     * @throws IOException
+     */
+    void start() throws IOException {
+        prepare(resp);
+        outputStream = resp.getOutputStream();
+        outputStream.setWriteListener(this);
+    }
+
+    @Override
+    public void onWritePossible() throws IOException {
+        while (outputStream.isReady()) {
+            Object chunk;
+            try {
+                chunk = source.next();
+            } catch (Exception e) {
+                // 响应头已经发出，无法再修改状态码，只能中断响应
+                e.printStackTrace();
+                finish();
+                return;
+            }
+            if (Objects.isNull(chunk)) {
+                finish();
+                return;
+            }
+            writeChunk(outputStream, chunk);
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        System.out.println("Streaming response aborted: " + t);
+        finish();
+    }
+
+    /**
+     * 超时或容器出错时中断响应
+     */
+    void abort() {
+        finish();
+    }
+
+    private void finish() {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        close(source);
+        trace.mark(DispatchTracer.WRITE);
+        asyncContext.complete();
+    }
+
+    /**
+     * 容器不支持异步时在当前线程依次写出所有分块
+     *
+     * @param resp
+     * @param source
+     * @throws IOException
+     */
+    static void writeBlocking(HttpServletResponse resp, ChunkSource source) throws IOException {
+        prepare(resp);
+        try {
+            OutputStream outputStream = resp.getOutputStream();
+            for (Object chunk = source.next(); Objects.nonNull(chunk); chunk = source.next()) {
+                writeChunk(outputStream, chunk);
+            }
+            outputStream.flush();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("流式响应读取异常", e);
+        } finally {
+            close(source);
+        }
+    }
+
+    /**
+     * 写出一个分块，每个分块只调用一次write，符合非阻塞模式下每次写之前都要检查isReady的约定
+     *
+     * @param outputStream
+     * @param chunk
+     * @throws IOException
+     */
+    private static void writeChunk(OutputStream outputStream, Object chunk) throws IOException {
+        if (chunk instanceof byte[]) {
+            outputStream.write((byte[]) chunk);
+        } else if (chunk instanceof ByteBuffer) {
+            ByteBuffer buffer = ((ByteBuffer) chunk).duplicate();
+            if (buffer.hasArray()) {
+                outputStream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            } else {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                outputStream.write(bytes);
+            }
+        } else if (chunk instanceof EncodedBody) {
+            ((EncodedBody) chunk).writeContent(outputStream);
+        } else {
+            outputStream.write(chunk.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void prepare(HttpServletResponse resp) {
+        if (Objects.isNull(resp.getContentType())) {
+            resp.setContentType(EncodedBody.TEXT_PLAIN);
+        }
+    }
+
+    private static void close(ChunkSource source) {
+        try {
+            source.close();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
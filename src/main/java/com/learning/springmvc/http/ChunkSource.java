@@ -0,0 +1,94 @@
+package com.learning.springmvc.http;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 00:20
+ * @description: 流式响应的数据来源，由分发器在输出流可写时逐个拉取，不需要把完整响应放在内存中
+ * handler可以直接返回ChunkSource、Stream或Iterator，每个分块可以是byte[]、ByteBuffer、EncodedBody或任意对象(按UTF-8输出toString)
+ */
+@FunctionalInterface
+public interface ChunkSource extends AutoCloseable {
+
+    /**
+     * 拉取下一个分块
+     *
+     * @return 没有更多内容时返回null
+     * @throws Exception
+     */
+    Object next() throws Exception;
+
+    /**
+     * 响应结束或中断时调用，用于释放游标、文件等资源
+     *
+     * @throws Exception
+     */
+    @Override
+    default void close() throws Exception {
+    }
+
+    /**
+     * 方法的返回类型是否为流式响应
+     *
+     * @param type
+     * @return
+     */
+    static boolean isStreaming(Class<?> type) {
+        return ChunkSource.class.isAssignableFrom(type) || Stream.class.isAssignableFrom(type) || Iterator.class.isAssignableFrom(type);
+    }
+
+    static boolean isStreaming(Object value) {
+        return value instanceof ChunkSource || value instanceof Stream || value instanceof Iterator;
+    }
+
+    /**
+     * 把handler的返回值适配为ChunkSource
+     *
+     * @param value
+     * @return
+     */
+    static ChunkSource from(Object value) {
+        if (value instanceof ChunkSource) {
+            return (ChunkSource) value;
+        }
+        if (value instanceof Stream) {
+            Stream<?> stream = (Stream<?>) value;
+            Iterator<?> iterator = stream.iterator();
+            return new ChunkSource() {
+                @Override
+                public Object next() {
+                    return nextNonNull(iterator);
+                }
+
+                @Override
+                public void close() {
+                    stream.close();
+                }
+            };
+        }
+        if (value instanceof Iterator) {
+            Iterator<?> iterator = (Iterator<?>) value;
+            return () -> nextNonNull(iterator);
+        }
+        throw new IllegalArgumentException("不支持的流式响应类型:" + value.getClass().getName());
+    }
+
+    /**
+     * null元素会被当作结束标记，因此直接跳过
+     *
+     * @param iterator
+     * @return
+     */
+    static Object nextNonNull(Iterator<?> iterator) {
+        while (iterator.hasNext()) {
+            Object next = iterator.next();
+            if (Objects.nonNull(next)) {
+                return next;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,135 @@
+package com.learning.springmvc.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 23:50
+ * @description: 预先编码好的不可变响应体，创建时完成字符编码，之后每次响应直接写出同一个字节数组
+ * 适合作为常量在多个请求之间复用，handler也可以直接返回该类型
+ */
+public final class EncodedBody {
+
+    public static final String TEXT_PLAIN = "text/plain;charset=UTF-8";
+
+    public static final String OCTET_STREAM = "application/octet-stream";
+
+    private final byte[] bytes;
+
+    private final String contentType;
+
+    private EncodedBody(byte[] bytes, String contentType) {
+        this.bytes = bytes;
+        this.contentType = contentType;
+    }
+
+    /**
+     * 按UTF-8编码的纯文本
+     *
+     * @param text
+     * @return
+     */
+    public static EncodedBody text(String text) {
+        return of(text, TEXT_PLAIN);
+    }
+
+    /**
+     * 按UTF-8编码的文本，contentType中应包含charset=UTF-8
+     *
+     * @param text
+     * @param contentType
+     * @return
+     */
+    public static EncodedBody of(String text, String contentType) {
+        return new EncodedBody(text.getBytes(StandardCharsets.UTF_8), contentType);
+    }
+
+    /**
+     * 二进制内容，会复制一份，之后修改原数组不影响响应体
+     *
+     * @param bytes
+     * @param contentType
+     * @return
+     */
+    public static EncodedBody of(byte[] bytes, String contentType) {
+        return new EncodedBody(bytes.clone(), contentType);
+    }
+
+    /**
+     * 写出响应体，handler已经设置过Content-Type时不覆盖
+     *
+     * @param resp
+     * @throws IOException
+     */
+    public void writeTo(HttpServletResponse resp) throws IOException {
+        writeHeaders(resp);
+        resp.getOutputStream().write(bytes);
+    }
+
+    /**
+     * 只设置Content-Type和Content-Length，用于HEAD请求
+     *
+     * @param resp
+     */
+    public void writeHeaders(HttpServletResponse resp) {
+        if (Objects.isNull(resp.getContentType())) {
+            resp.setContentType(contentType);
+        }
+        resp.setContentLength(bytes.length);
+    }
+
+    /**
+     * 只写出内容，不设置响应头，用于流式响应中的分块
+     *
+     * @param outputStream
+     * @throws IOException
+     */
+    public void writeContent(OutputStream outputStream) throws IOException {
+        outputStream.write(bytes);
+    }
+
+    public int getContentLength() {
+        return bytes.length;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * 返回内容的副本
+     *
+     * @return
+     */
+    public byte[] toByteArray() {
+        return bytes.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EncodedBody)) {
+            return false;
+        }
+        EncodedBody that = (EncodedBody) o;
+        return Arrays.equals(bytes, that.bytes) && Objects.equals(contentType, that.contentType);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(bytes) + Objects.hashCode(contentType);
+    }
+
+    @Override
+    public String toString() {
+        return "EncodedBody{contentType=" + contentType + ", length=" + bytes.length + "}";
+    }
+}
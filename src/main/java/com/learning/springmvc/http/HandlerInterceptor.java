@@ -0,0 +1,53 @@
+package com.learning.springmvc.http;
+
+import java.lang.reflect.Method;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 05:30
+ * @description: handler拦截器，用于在handler执行前后处理鉴权、日志、响应头等通用逻辑
+ * 自定义实现可通过配置文件中的handlerInterceptors注册，并按路由模式限定生效范围
+ * preHandle按配置顺序执行，postHandle和afterCompletion按相反顺序执行
+ */
+public interface HandlerInterceptor {
+
+    /**
+     * handler执行前调用，命中响应缓存的请求同样会调用
+     *
+     * @param req
+     * @param resp
+     * @param handler 路由对应的Controller方法
+     * @return false时不再执行后续拦截器和handler，需要由拦截器自己写出响应
+     * @throws Exception
+     */
+    default boolean preHandle(HttpServletRequest req, HttpServletResponse resp, Method handler) throws Exception {
+        return true;
+    }
+
+    /**
+     * handler正常返回后、写出结果前调用，命中响应缓存时handler未执行，不会调用
+     *
+     * @param req
+     * @param resp
+     * @param handler
+     * @param result  handler的返回值，异步handler为返回的CompletionStage
+     * @throws Exception
+     */
+    default void postHandle(HttpServletRequest req, HttpServletResponse resp, Method handler, Object result) throws Exception {
+    }
+
+    /**
+     * 请求处理完成后调用，只对preHandle返回true的拦截器调用，异步请求在AsyncContext完成时调用
+     *
+     * @param req
+     * @param resp
+     * @param handler
+     * @param error   handler或拦截器抛出的异常，正常完成时为null
+     * @throws Exception
+     */
+    default void afterCompletion(HttpServletRequest req, HttpServletResponse resp, Method handler, Throwable error) throws Exception {
+    }
+}
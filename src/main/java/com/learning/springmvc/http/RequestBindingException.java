@@ -0,0 +1,18 @@
+package com.learning.springmvc.http;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 05:40
+ * @description: 请求参数绑定失败，例如参数无法转换为声明的类型、缺少必需的参数或请求体json格式错误
+ * 属于客户端错误，默认映射为400且不输出异常堆栈，可以通过errorStatus.com.learning.springmvc.http.RequestBindingException修改状态码
+ */
+public class RequestBindingException extends IllegalArgumentException {
+
+    public RequestBindingException(String message) {
+        super(message);
+    }
+
+    public RequestBindingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
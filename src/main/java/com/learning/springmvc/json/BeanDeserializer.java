@@ -0,0 +1,154 @@
+package com.learning.springmvc.json;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.common.collect.Maps;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 01:30
+ * @description: bean反序列化器，通过无参构造器创建对象，按属性名查找预先编译好的setter
+ * 目标类型中不存在的属性直接跳过
+ */
+final class BeanDeserializer implements JsonDeserializer {
+
+    private final Class<?> type;
+
+    private final MethodHandle constructor;
+
+    private final Map<String, PropertyReader> properties;
+
+    private BeanDeserializer(Class<?> type, MethodHandle constructor, Map<String, PropertyReader> properties) {
+        this.type = type;
+        this.constructor = constructor;
+        this.properties = properties;
+    }
+
+    /**
+     * 创建bean反序列化器，没有无参构造器时返回null
+     *
+     * @param type
+     * @param mapper
+     * @return
+     */
+    static BeanDeserializer create(Class<?> type, JsonMapper mapper) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isEnum()) {
+            return null;
+        }
+        MethodHandle constructor;
+        try {
+            Constructor<?> declared = type.getDeclaredConstructor();
+            declared.setAccessible(true);
+            constructor = MethodHandles.lookup().unreflectConstructor(declared).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+
+        Map<String, PropertyReader> properties = Maps.newHashMap();
+        try {
+            for (Method method : type.getMethods()) {
+                String name = BeanProperties.setterName(method);
+                if (Objects.nonNull(name)) {
+                    properties.put(name, new PropertyReader(name, method.getGenericParameterTypes()[0],
+                            method.getParameterTypes()[0].isPrimitive(), BeanProperties.unreflect(method), mapper));
+                }
+            }
+            for (Field field : type.getFields()) {
+                if (BeanProperties.isPublicField(field) && !Modifier.isFinal(field.getModifiers()) && !properties.containsKey(field.getName())) {
+                    properties.put(field.getName(), new PropertyReader(field.getName(), field.getGenericType(), field.getType().isPrimitive(),
+                            BeanProperties.unreflectSetter(field), mapper));
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new JsonException("无法写入属性:" + type.getName(), e);
+        }
+        return new BeanDeserializer(type, constructor, properties);
+    }
+
+    @Override
+    public Object read(JsonParser parser) {
+        if (parser.peek() != '{') {
+            throw parser.error("需要对象:" + type.getName());
+        }
+        Object bean;
+        try {
+            bean = (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new JsonException("对象创建失败:" + type.getName(), e);
+        }
+        if (parser.beginObject()) {
+            do {
+                String name = parser.nextName();
+                PropertyReader property = properties.get(name);
+                if (Objects.isNull(property)) {
+                    parser.skipValue();
+                } else {
+                    property.read(bean, parser);
+                }
+            } while (parser.hasNext());
+        }
+        return bean;
+    }
+
+    /**
+     * 单个属性的读取器
+     */
+    private static final class PropertyReader {
+
+        private final String name;
+
+        private final Type type;
+
+        private final boolean primitive;
+
+        private final MethodHandle setter;
+
+        private final JsonMapper mapper;
+
+        /**
+         * 延迟解析，避免自引用的类型在创建反序列化器时无限递归
+         */
+        private JsonDeserializer deserializer;
+
+        PropertyReader(String name, Type type, boolean primitive, MethodHandle setter, JsonMapper mapper) {
+            this.name = name;
+            this.type = type;
+            this.primitive = primitive;
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            this.mapper = mapper;
+        }
+
+        void read(Object bean, JsonParser parser) {
+            Object value = null;
+            if (!parser.nextNull()) {
+                JsonDeserializer resolved = deserializer;
+                if (Objects.isNull(resolved)) {
+                    resolved = mapper.deserializerFor(type);
+                    deserializer = resolved;
+                }
+                value = resolved.read(parser);
+            } else if (primitive) {
+                // 基本类型属性遇到null时保留默认值
+                return;
+            }
+            try {
+                setter.invokeExact(bean, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new JsonException("属性写入失败:" + name, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.learning.springmvc.json;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 01:20
+ * @description: bean属性的反射发现，只在第一次序列化或反序列化某个类时调用
+ * 属性来自public的getter/setter以及public字段，结果转换为MethodHandle由调用方缓存
+ */
+final class BeanProperties {
+
+    private BeanProperties() {
+    }
+
+    /**
+     * getter对应的属性名，不是getter时返回null
+     *
+     * @param method
+     * @return
+     */
+    static String getterName(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0 || method.getReturnType() == void.class
+                || method.getDeclaringClass() == Object.class) {
+            return null;
+        }
+        String name = method.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && method.getReturnType() == boolean.class) {
+            return decapitalize(name.substring(2));
+        }
+        return null;
+    }
+
+    /**
+     * setter对应的属性名，不是setter时返回null
+     *
+     * @param method
+     * @return
+     */
+    static String setterName(Method method) {
+        String name = method.getName();
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1 || !name.startsWith("set") || name.length() <= 3) {
+            return null;
+        }
+        return decapitalize(name.substring(3));
+    }
+
+    /**
+     * 可以直接读写的public实例字段
+     *
+     * @param field
+     * @return
+     */
+    static boolean isPublicField(Field field) {
+        int modifiers = field.getModifiers();
+        return Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers);
+    }
+
+    /**
+     * 按父类到子类、声明顺序排列的字段名，用于确定属性的输出顺序
+     *
+     * @param type
+     * @return
+     */
+    static List<String> declaredFieldNames(Class<?> type) {
+        Deque<Class<?>> hierarchy = Lists.newLinkedList();
+        for (Class<?> clazz = type; Objects.nonNull(clazz) && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            hierarchy.addFirst(clazz);
+        }
+        List<String> names = Lists.newArrayList();
+        for (Class<?> clazz : hierarchy) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    names.add(field.getName());
+                }
+            }
+        }
+        return names;
+    }
+
+    static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        makeAccessible(method);
+        return MethodHandles.lookup().unreflect(method);
+    }
+
+    static MethodHandle unreflectGetter(Field field) throws IllegalAccessException {
+        makeAccessible(field);
+        return MethodHandles.lookup().unreflectGetter(field);
+    }
+
+    static MethodHandle unreflectSetter(Field field) throws IllegalAccessException {
+        makeAccessible(field);
+        return MethodHandles.lookup().unreflectSetter(field);
+    }
+
+    /**
+     * 非public类中的public方法也需要关闭访问检查才能调用
+     *
+     * @param object
+     */
+    private static void makeAccessible(AccessibleObject object) {
+        try {
+            object.setAccessible(true);
+        } catch (RuntimeException e) {
+            // 无法关闭访问检查时按正常的访问权限处理
+        }
+    }
+
+    /**
+     * 与java.beans.Introspector一致，前两个字母都是大写时保持不变
+     *
+     * @param name
+     * @return
+     */
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+}
@@ -0,0 +1,192 @@
+package com.learning.springmvc.json;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 01:25
+ * @description: bean序列化器，第一次使用某个类时发现属性并编译为MethodHandle，之后每次序列化只按数组顺序调用
+ * 属性名连同引号、冒号和前面的逗号预先编码为字节，整数、布尔和浮点属性不经过装箱
+ */
+final class BeanSerializer implements JsonSerializer {
+
+    private final PropertyWriter[] properties;
+
+    private BeanSerializer(PropertyWriter[] properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 创建bean序列化器，没有可输出的属性时返回null
+     *
+     * @param type
+     * @param mapper
+     * @return
+     */
+    static BeanSerializer create(Class<?> type, JsonMapper mapper) {
+        Map<String, Object> accessors = Maps.newHashMap();
+        for (Method method : type.getMethods()) {
+            String name = BeanProperties.getterName(method);
+            if (Objects.nonNull(name)) {
+                accessors.put(name, method);
+            }
+        }
+        for (Field field : type.getFields()) {
+            if (BeanProperties.isPublicField(field)) {
+                accessors.putIfAbsent(field.getName(), field);
+            }
+        }
+        if (accessors.isEmpty()) {
+            return null;
+        }
+
+        // 有对应字段的属性按字段声明顺序输出，其余按名称排序
+        List<String> names = Lists.newArrayList();
+        for (String fieldName : BeanProperties.declaredFieldNames(type)) {
+            if (accessors.containsKey(fieldName) && !names.contains(fieldName)) {
+                names.add(fieldName);
+            }
+        }
+        accessors.keySet().stream().filter(name -> !names.contains(name)).sorted().forEach(names::add);
+
+        PropertyWriter[] properties = new PropertyWriter[names.size()];
+        for (int i = 0; i < properties.length; i++) {
+            String name = names.get(i);
+            byte[] prefix = ((i == 0 ? "\"" : ",\"") + name + "\":").getBytes(StandardCharsets.UTF_8);
+            try {
+                Object accessor = accessors.get(name);
+                if (accessor instanceof Method) {
+                    properties[i] = PropertyWriter.create(name, prefix, ((Method) accessor).getReturnType(),
+                            BeanProperties.unreflect((Method) accessor), mapper);
+                } else {
+                    properties[i] = PropertyWriter.create(name, prefix, ((Field) accessor).getType(),
+                            BeanProperties.unreflectGetter((Field) accessor), mapper);
+                }
+            } catch (IllegalAccessException e) {
+                throw new JsonException("无法读取属性:" + type.getName() + "." + name, e);
+            }
+        }
+        return new BeanSerializer(properties);
+    }
+
+    @Override
+    public void write(Object value, JsonOutput output) {
+        output.writeByte('{');
+        for (PropertyWriter property : properties) {
+            output.writeRaw(property.prefix);
+            try {
+                property.write(value, output);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new JsonException("属性读取失败:" + property.name, e);
+            }
+        }
+        output.writeByte('}');
+    }
+
+    /**
+     * 单个属性的写出器，按属性类型选择是否装箱
+     */
+    private abstract static class PropertyWriter {
+
+        final String name;
+
+        final byte[] prefix;
+
+        final MethodHandle getter;
+
+        PropertyWriter(String name, byte[] prefix, MethodHandle getter) {
+            this.name = name;
+            this.prefix = prefix;
+            this.getter = getter;
+        }
+
+        abstract void write(Object bean, JsonOutput output) throws Throwable;
+
+        static PropertyWriter create(String name, byte[] prefix, Class<?> type, MethodHandle getter, JsonMapper mapper) {
+            if (type == int.class || type == long.class || type == short.class || type == byte.class) {
+                MethodHandle handle = getter.asType(MethodType.methodType(long.class, Object.class));
+                return new PropertyWriter(name, prefix, handle) {
+                    @Override
+                    void write(Object bean, JsonOutput output) throws Throwable {
+                        output.writeLong((long) this.getter.invokeExact(bean));
+                    }
+                };
+            }
+            if (type == double.class || type == float.class) {
+                MethodHandle handle = getter.asType(MethodType.methodType(double.class, Object.class));
+                return new PropertyWriter(name, prefix, handle) {
+                    @Override
+                    void write(Object bean, JsonOutput output) throws Throwable {
+                        output.writeDouble((double) this.getter.invokeExact(bean));
+                    }
+                };
+            }
+            if (type == boolean.class) {
+                MethodHandle handle = getter.asType(MethodType.methodType(boolean.class, Object.class));
+                return new PropertyWriter(name, prefix, handle) {
+                    @Override
+                    void write(Object bean, JsonOutput output) throws Throwable {
+                        output.writeBoolean((boolean) this.getter.invokeExact(bean));
+                    }
+                };
+            }
+            return new ObjectPropertyWriter(name, prefix, getter.asType(MethodType.methodType(Object.class, Object.class)), type, mapper);
+        }
+    }
+
+    /**
+     * 引用类型的属性，声明类型为final时序列化器只查找一次，否则按运行时类型查找
+     */
+    private static final class ObjectPropertyWriter extends PropertyWriter {
+
+        private final Class<?> type;
+
+        private final boolean exactType;
+
+        private final JsonMapper mapper;
+
+        /**
+         * 延迟解析，避免自引用的类型在创建序列化器时无限递归
+         */
+        private JsonSerializer serializer;
+
+        ObjectPropertyWriter(String name, byte[] prefix, MethodHandle getter, Class<?> type, JsonMapper mapper) {
+            super(name, prefix, getter);
+            this.type = type;
+            this.exactType = type.isPrimitive() || Modifier.isFinal(type.getModifiers());
+            this.mapper = mapper;
+        }
+
+        @Override
+        void write(Object bean, JsonOutput output) throws Throwable {
+            Object value = (Object) getter.invokeExact(bean);
+            if (Objects.isNull(value)) {
+                output.writeNull();
+                return;
+            }
+            if (!exactType) {
+                mapper.serializerFor(value.getClass()).write(value, output);
+                return;
+            }
+            JsonSerializer resolved = serializer;
+            if (Objects.isNull(resolved)) {
+                resolved = mapper.serializerFor(type.isPrimitive() ? value.getClass() : type);
+                serializer = resolved;
+            }
+            resolved.write(value, output);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.learning.springmvc.json;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 01:10
+ * @description: 某个类型的json反序列化器，由JsonMapper按目标类型生成并缓存
+ */
+@FunctionalInterface
+public interface JsonDeserializer {
+
+    /**
+     * 读取下一个值，null已由调用方处理
+     *
+     * @param parser
+     * @return
+     */
+    Object read(JsonParser parser);
+}
@@ -0,0 +1,17 @@
+package com.learning.springmvc.json;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 01:00
+ * @description: json解析或序列化异常，请求体格式错误属于非法参数，可以通过errorStatus.java.lang.IllegalArgumentException映射状态码
+ */
+public class JsonException extends IllegalArgumentException {
+
+    public JsonException(String message) {
+        super(message);
+    }
+
+    public JsonException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
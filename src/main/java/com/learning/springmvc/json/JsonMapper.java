@@ -0,0 +1,484 @@
+package com.learning.springmvc.json;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.learning.springmvc.convert.ConverterRegistry;
+import com.learning.springmvc.convert.ParameterConverter;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 01:40
+ * @description: json序列化和反序列化入口，线程安全
+ * 序列化器按运行时类型、反序列化器按目标类型在第一次使用时生成并缓存，之后的请求不再做反射发现
+ * 日期、UUID、枚举以及自定义类型的字符串值复用ConverterRegistry中的转换器，与请求参数的转换规则一致
+ */
+public class JsonMapper {
+
+    public static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    private final ConverterRegistry converterRegistry;
+
+    private final Map<Class<?>, JsonSerializer> serializers = new ConcurrentHashMap<>();
+
+    private final Map<Type, JsonDeserializer> deserializers = new ConcurrentHashMap<>();
+
+    /**
+     * 每个线程复用一个输出缓冲区
+     */
+    private final ThreadLocal<JsonOutput> outputs = ThreadLocal.withInitial(JsonOutput::new);
+
+    public JsonMapper() {
+        this(new ConverterRegistry());
+    }
+
+    public JsonMapper(ConverterRegistry converterRegistry) {
+        this.converterRegistry = converterRegistry;
+    }
+
+    /**
+     * 注册自定义序列化器，会覆盖内置的序列化方式
+     *
+     * @param type
+     * @param serializer
+     */
+    public void register(Class<?> type, JsonSerializer serializer) {
+        serializers.put(type, serializer);
+    }
+
+    /**
+     * 当前线程的输出缓冲区，使用前已清空
+     *
+     * @return
+     */
+    public JsonOutput localOutput() {
+        JsonOutput output = outputs.get();
+        output.reset();
+        return output;
+    }
+
+    public void write(Object value, JsonOutput output) {
+        if (Objects.isNull(value)) {
+            output.writeNull();
+            return;
+        }
+        serializerFor(value.getClass()).write(value, output);
+    }
+
+    public byte[] writeValueAsBytes(Object value) {
+        JsonOutput output = localOutput();
+        try {
+            write(value, output);
+            return output.toByteArray();
+        } finally {
+            output.reset();
+        }
+    }
+
+    public String writeValueAsString(Object value) {
+        return new String(writeValueAsBytes(value), StandardCharsets.UTF_8);
+    }
+
+    public Object read(String json, Type type) {
+        return read(json, deserializerFor(type));
+    }
+
+    public Object read(String json, JsonDeserializer deserializer) {
+        JsonParser parser = new JsonParser(json);
+        Object value = parser.nextNull() ? null : deserializer.read(parser);
+        parser.end();
+        return value;
+    }
+
+    /**
+     * 获取运行时类型的序列化器
+     *
+     * @param type
+     * @return
+     */
+    public JsonSerializer serializerFor(Class<?> type) {
+        JsonSerializer serializer = serializers.get(type);
+        if (Objects.nonNull(serializer)) {
+            return serializer;
+        }
+        // 不使用computeIfAbsent，创建过程中可能会查找其他类型
+        serializer = createSerializer(type);
+        JsonSerializer existing = serializers.putIfAbsent(type, serializer);
+        return Objects.nonNull(existing) ? existing : serializer;
+    }
+
+    /**
+     * 获取目标类型的反序列化器
+     *
+     * @param type
+     * @return
+     */
+    public JsonDeserializer deserializerFor(Type type) {
+        JsonDeserializer deserializer = deserializers.get(type);
+        if (Objects.nonNull(deserializer)) {
+            return deserializer;
+        }
+        deserializer = createDeserializer(type);
+        JsonDeserializer existing = deserializers.putIfAbsent(type, deserializer);
+        return Objects.nonNull(existing) ? existing : deserializer;
+    }
+
+    private JsonSerializer createSerializer(Class<?> type) {
+        if (CharSequence.class.isAssignableFrom(type) || type == Character.class) {
+            return (value, output) -> output.writeString(value.toString());
+        }
+        if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class) {
+            return (value, output) -> output.writeLong(((Number) value).longValue());
+        }
+        if (type == Double.class || type == Float.class) {
+            return (value, output) -> output.writeDouble(((Number) value).doubleValue());
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return (value, output) -> output.writeAscii(value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString());
+        }
+        if (type == Boolean.class) {
+            return (value, output) -> output.writeBoolean((Boolean) value);
+        }
+        if (Enum.class.isAssignableFrom(type)) {
+            return (value, output) -> output.writeString(((Enum<?>) value).name());
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            // 与ConverterRegistry一致，毫秒时间戳可以原样转换回来
+            return (value, output) -> output.writeLong(((Date) value).getTime());
+        }
+        if (Optional.class == type) {
+            return (value, output) -> write(((Optional<?>) value).orElse(null), output);
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return this::writeMap;
+        }
+        if (Iterable.class.isAssignableFrom(type)) {
+            return (value, output) -> {
+                output.writeByte('[');
+                boolean first = true;
+                for (Object item : (Iterable<?>) value) {
+                    if (!first) {
+                        output.writeByte(',');
+                    }
+                    first = false;
+                    write(item, output);
+                }
+                output.writeByte(']');
+            };
+        }
+        if (type.isArray()) {
+            return createArraySerializer(type.getComponentType());
+        }
+        // jdk中的其他类型(日期时间、UUID、URI等)以及没有属性的类按toString输出
+        String className = type.getName();
+        if (!className.startsWith("java.") && !className.startsWith("javax.")) {
+            BeanSerializer serializer = BeanSerializer.create(type, this);
+            if (Objects.nonNull(serializer)) {
+                return serializer;
+            }
+        }
+        return (value, output) -> output.writeString(value.toString());
+    }
+
+    private JsonSerializer createArraySerializer(Class<?> componentType) {
+        if (componentType == byte.class) {
+            return (value, output) -> output.writeString(Base64.getEncoder().encodeToString((byte[]) value));
+        }
+        if (componentType == char.class) {
+            return (value, output) -> output.writeString(new String((char[]) value));
+        }
+        if (componentType == int.class) {
+            return (value, output) -> {
+                int[] array = (int[]) value;
+                output.writeByte('[');
+                for (int i = 0; i < array.length; i++) {
+                    if (i > 0) {
+                        output.writeByte(',');
+                    }
+                    output.writeLong(array[i]);
+                }
+                output.writeByte(']');
+            };
+        }
+        if (componentType == long.class) {
+            return (value, output) -> {
+                long[] array = (long[]) value;
+                output.writeByte('[');
+                for (int i = 0; i < array.length; i++) {
+                    if (i > 0) {
+                        output.writeByte(',');
+                    }
+                    output.writeLong(array[i]);
+                }
+                output.writeByte(']');
+            };
+        }
+        if (!componentType.isPrimitive()) {
+            return (value, output) -> {
+                Object[] array = (Object[]) value;
+                output.writeByte('[');
+                for (int i = 0; i < array.length; i++) {
+                    if (i > 0) {
+                        output.writeByte(',');
+                    }
+                    write(array[i], output);
+                }
+                output.writeByte(']');
+            };
+        }
+        // 其余基本类型数组较少使用，通过Array逐个装箱
+        return (value, output) -> {
+            int length = Array.getLength(value);
+            output.writeByte('[');
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    output.writeByte(',');
+                }
+                write(Array.get(value, i), output);
+            }
+            output.writeByte(']');
+        };
+    }
+
+    private void writeMap(Object value, JsonOutput output) {
+        output.writeByte('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            if (!first) {
+                output.writeByte(',');
+            }
+            first = false;
+            Object key = entry.getKey();
+            output.writeString(key instanceof Enum ? ((Enum<?>) key).name() : String.valueOf(key));
+            output.writeByte(':');
+            write(entry.getValue(), output);
+        }
+        output.writeByte('}');
+    }
+
+    private JsonDeserializer createDeserializer(Type type) {
+        if (type instanceof GenericArrayType) {
+            Type componentType = ((GenericArrayType) type).getGenericComponentType();
+            return createArrayDeserializer(rawClass(componentType), componentType);
+        }
+        Class<?> rawType = rawClass(type);
+        if (rawType == Object.class) {
+            return JsonParser::nextValue;
+        }
+        if (rawType == String.class) {
+            return JsonParser::nextScalar;
+        }
+        if (rawType == int.class || rawType == Integer.class) {
+            return parser -> parseNumber(parser, Integer::valueOf);
+        }
+        if (rawType == long.class || rawType == Long.class) {
+            return parser -> parseNumber(parser, Long::valueOf);
+        }
+        if (rawType == double.class || rawType == Double.class) {
+            return parser -> parseNumber(parser, Double::valueOf);
+        }
+        if (rawType == BigDecimal.class) {
+            return parser -> parseNumber(parser, BigDecimal::new);
+        }
+        if (rawType == BigInteger.class) {
+            return parser -> parseNumber(parser, BigInteger::new);
+        }
+        if (rawType.isArray()) {
+            return createArrayDeserializer(rawType.getComponentType(), rawType.getComponentType());
+        }
+        if (Collection.class.isAssignableFrom(rawType) || rawType == Iterable.class) {
+            JsonDeserializer elementDeserializer = deserializerFor(typeArgument(type, 0));
+            Supplier<Collection<Object>> factory = collectionFactory(rawType);
+            return parser -> {
+                Collection<Object> collection = factory.get();
+                if (parser.beginArray()) {
+                    do {
+                        collection.add(parser.nextNull() ? null : elementDeserializer.read(parser));
+                    } while (parser.hasNext());
+                }
+                return collection;
+            };
+        }
+        if (Map.class.isAssignableFrom(rawType)) {
+            Type keyType = typeArgument(type, 0);
+            ParameterConverter keyConverter = rawClass(keyType) == String.class || rawClass(keyType) == Object.class ? null
+                    : converterRegistry.compile(rawClass(keyType), keyType, "key");
+            JsonDeserializer valueDeserializer = deserializerFor(typeArgument(type, 1));
+            Supplier<Map<Object, Object>> factory = mapFactory(rawType);
+            return parser -> {
+                Map<Object, Object> map = factory.get();
+                if (parser.beginObject()) {
+                    do {
+                        String name = parser.nextName();
+                        Object key = Objects.isNull(keyConverter) ? name : keyConverter.convert(new String[]{name});
+                        map.put(key, parser.nextNull() ? null : valueDeserializer.read(parser));
+                    } while (parser.hasNext());
+                }
+                return map;
+            };
+        }
+        String className = rawType.getName();
+        if (!rawType.isPrimitive() && !className.startsWith("java.") && !className.startsWith("javax.")) {
+            BeanDeserializer deserializer = BeanDeserializer.create(rawType, this);
+            if (Objects.nonNull(deserializer)) {
+                return deserializer;
+            }
+        }
+        // 布尔、枚举、日期时间、UUID以及自定义类型按字符串值转换
+        ParameterConverter converter = converterRegistry.compile(rawType, rawType, rawType.getSimpleName());
+        return parser -> converter.convert(new String[]{parser.nextScalar()});
+    }
+
+    private JsonDeserializer createArrayDeserializer(Class<?> componentType, Type genericComponentType) {
+        if (componentType == byte.class) {
+            return parser -> {
+                try {
+                    return Base64.getDecoder().decode(parser.nextScalar());
+                } catch (IllegalArgumentException e) {
+                    throw new JsonException("base64格式错误", e);
+                }
+            };
+        }
+        JsonDeserializer elementDeserializer = deserializerFor(genericComponentType);
+        return parser -> {
+            List<Object> items = new ArrayList<>();
+            if (parser.beginArray()) {
+                do {
+                    items.add(parser.nextNull() ? null : elementDeserializer.read(parser));
+                } while (parser.hasNext());
+            }
+            Object array = Array.newInstance(componentType, items.size());
+            try {
+                for (int i = 0; i < items.size(); i++) {
+                    Array.set(array, i, items.get(i));
+                }
+            } catch (IllegalArgumentException e) {
+                throw new JsonException("数组元素类型错误:" + componentType.getName(), e);
+            }
+            return array;
+        };
+    }
+
+    private static <T> T parseNumber(JsonParser parser, Function<String, T> parse) {
+        String text = parser.nextScalar();
+        try {
+            return parse.apply(text.trim());
+        } catch (NumberFormatException e) {
+            throw parser.error("数字格式错误:" + text);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Collection<Object>> collectionFactory(Class<?> rawType) {
+        if (!rawType.isInterface() && !Modifier.isAbstract(rawType.getModifiers())) {
+            Supplier<Object> constructor = constructor(rawType);
+            return () -> (Collection<Object>) constructor.get();
+        }
+        if (SortedSet.class.isAssignableFrom(rawType)) {
+            return TreeSet::new;
+        }
+        if (Set.class.isAssignableFrom(rawType)) {
+            return LinkedHashSet::new;
+        }
+        if (Queue.class.isAssignableFrom(rawType)) {
+            return ArrayDeque::new;
+        }
+        return ArrayList::new;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Map<Object, Object>> mapFactory(Class<?> rawType) {
+        if (!rawType.isInterface() && !Modifier.isAbstract(rawType.getModifiers())) {
+            Supplier<Object> constructor = constructor(rawType);
+            return () -> (Map<Object, Object>) constructor.get();
+        }
+        if (SortedMap.class.isAssignableFrom(rawType)) {
+            return TreeMap::new;
+        }
+        if (ConcurrentHashMap.class.isAssignableFrom(rawType) || rawType.getName().startsWith("java.util.concurrent.")) {
+            return ConcurrentHashMap::new;
+        }
+        return LinkedHashMap::new;
+    }
+
+    private static Supplier<Object> constructor(Class<?> rawType) {
+        Constructor<?> constructor;
+        try {
+            constructor = rawType.getConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new JsonException("缺少无参构造器:" + rawType.getName(), e);
+        }
+        return () -> {
+            try {
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new JsonException("对象创建失败:" + rawType.getName(), e);
+            }
+        };
+    }
+
+    /**
+     * 泛型参数，没有声明时按Object处理
+     *
+     * @param type
+     * @param index
+     * @return
+     */
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(rawClass(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+        if (type instanceof WildcardType) {
+            return rawClass(((WildcardType) type).getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable) {
+            return rawClass(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return Object.class;
+    }
+}
@@ -0,0 +1,224 @@
+package com.learning.springmvc.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 01:00
+ * @description: json输出缓冲区，字符串在转义的同时直接编码为UTF-8字节，不经过中间的String和char[]
+ * 写完后可以得到准确的长度，再一次性写入响应的输出流
+ */
+public final class JsonOutput {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    private final int initialCapacity;
+
+    /**
+     * reset时超过该大小的缓冲区会被丢弃，避免偶尔的大响应让线程一直持有大数组
+     */
+    private final int maxRetainedCapacity;
+
+    private byte[] buffer;
+
+    private int count;
+
+    public JsonOutput() {
+        this(512, 64 * 1024);
+    }
+
+    public JsonOutput(int initialCapacity, int maxRetainedCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedCapacity = maxRetainedCapacity;
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public void writeNull() {
+        writeRaw(NULL);
+    }
+
+    public void writeBoolean(boolean value) {
+        writeRaw(value ? TRUE : FALSE);
+    }
+
+    /**
+     * 整数直接按位写入，不创建String
+     *
+     * @param value
+     */
+    public void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[count++] = '-';
+            value = -value;
+        }
+        int start = count;
+        do {
+            buffer[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        // 低位先写入，再原地翻转
+        for (int i = start, j = count - 1; i < j; i++, j--) {
+            byte b = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = b;
+        }
+    }
+
+    /**
+     * NaN和无穷大不是合法的json数字，输出为null
+     *
+     * @param value
+     */
+    public void writeDouble(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeNull();
+            return;
+        }
+        if (value == (long) value && Math.abs(value) < 1e15) {
+            writeLong((long) value);
+            return;
+        }
+        writeAscii(Double.toString(value));
+    }
+
+    /**
+     * 写入加引号并转义后的字符串
+     *
+     * @param value
+     */
+    public void writeString(CharSequence value) {
+        int length = value.length();
+        // 每个字符最多占用6个字节(\\uXXXX)，提前一次性扩容
+        ensureCapacity(length * 6 + 2);
+        byte[] bytes = buffer;
+        int position = count;
+        bytes[position++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    bytes[position++] = (byte) c;
+                    continue;
+                }
+                bytes[position++] = '\\';
+                switch (c) {
+                    case '"':
+                        bytes[position++] = '"';
+                        break;
+                    case '\\':
+                        bytes[position++] = '\\';
+                        break;
+                    case '\n':
+                        bytes[position++] = 'n';
+                        break;
+                    case '\r':
+                        bytes[position++] = 'r';
+                        break;
+                    case '\t':
+                        bytes[position++] = 't';
+                        break;
+                    default:
+                        bytes[position++] = 'u';
+                        bytes[position++] = '0';
+                        bytes[position++] = '0';
+                        bytes[position++] = HEX[c >> 4];
+                        bytes[position++] = HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | c >> 6);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+                bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // 不成对的代理字符无法编码为UTF-8
+                bytes[position++] = '?';
+            } else {
+                bytes[position++] = (byte) (0xE0 | c >> 12);
+                bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        bytes[position++] = '"';
+        count = position;
+    }
+
+    /**
+     * 写入只包含ASCII字符的内容，例如数字
+     *
+     * @param value
+     */
+    public void writeAscii(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[count++] = (byte) value.charAt(i);
+        }
+    }
+
+    public void writeByte(char c) {
+        ensureCapacity(1);
+        buffer[count++] = (byte) c;
+    }
+
+    /**
+     * 写入预先编码好的内容，例如属性名
+     *
+     * @param bytes
+     */
+    public void writeRaw(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(buffer, 0, count);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * 清空内容以便复用
+     */
+    public void reset() {
+        count = 0;
+        if (buffer.length > maxRetainedCapacity) {
+            buffer = new byte[initialCapacity];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, count, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (count + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, count + extra));
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.learning.springmvc.json;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 01:10
+ * @description: json解析器，按需逐个读取token，由JsonDeserializer直接构建目标对象，不生成中间的Map/List树
+ * 对象和数组的嵌套层数有上限，避免恶意请求体通过深层嵌套耗尽调用栈
+ */
+public final class JsonParser {
+
+    /**
+     * 对象和数组的最大嵌套层数
+     */
+    static final int MAX_DEPTH = 256;
+
+    private final String text;
+
+    private int position;
+
+    /**
+     * 当前所在的对象和数组的层数
+     */
+    private int depth;
+
+    public JsonParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * 跳过空白后返回下一个字符，不消费，已到末尾时返回0
+     *
+     * @return
+     */
+    public char peek() {
+        skipWhitespace();
+        return position < text.length() ? text.charAt(position) : 0;
+    }
+
+    /**
+     * 下一个值为null时消费并返回true
+     *
+     * @return
+     */
+    public boolean nextNull() {
+        if (peek() == 'n') {
+            expectLiteral("null");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 开始读取对象
+     *
+     * @return 对象是否有属性，空对象会直接消费右括号
+     */
+    public boolean beginObject() {
+        expect('{');
+        if (peek() == '}') {
+            position++;
+            return false;
+        }
+        enter();
+        return true;
+    }
+
+    /**
+     * 读取属性名和冒号
+     *
+     * @return
+     */
+    public String nextName() {
+        if (peek() != '"') {
+            throw error("需要属性名");
+        }
+        String name = readQuoted();
+        expect(':');
+        return name;
+    }
+
+    /**
+     * 开始读取数组
+     *
+     * @return 数组是否有元素，空数组会直接消费右括号
+     */
+    public boolean beginArray() {
+        expect('[');
+        if (peek() == ']') {
+            position++;
+            return false;
+        }
+        enter();
+        return true;
+    }
+
+    /**
+     * 读完一个属性或元素后调用，遇到逗号返回true，遇到对象或数组结尾返回false
+     *
+     * @return
+     */
+    public boolean hasNext() {
+        char c = peek();
+        if (c == ',') {
+            position++;
+            return true;
+        }
+        if (c == '}' || c == ']') {
+            position++;
+            depth--;
+            return false;
+        }
+        throw error("需要逗号或结束括号");
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw error("嵌套超过" + MAX_DEPTH + "层");
+        }
+    }
+
+    /**
+     * 读取字符串、数字或布尔值的文本，用于转换为标量类型
+     *
+     * @return
+     */
+    public String nextScalar() {
+        char c = peek();
+        if (c == '"') {
+            return readQuoted();
+        }
+        if (c == 't') {
+            expectLiteral("true");
+            return "true";
+        }
+        if (c == 'f') {
+            expectLiteral("false");
+            return "false";
+        }
+        if (c == '-' || c >= '0' && c <= '9') {
+            return readNumber();
+        }
+        throw error("需要字符串、数字或布尔值");
+    }
+
+    /**
+     * 按json本身的类型读取任意值：对象为Map，数组为List，整数为Long或BigDecimal，小数为Double
+     *
+     * @return
+     */
+    public Object nextValue() {
+        char c = peek();
+        switch (c) {
+            case '{': {
+                Map<String, Object> map = Maps.newLinkedHashMap();
+                if (beginObject()) {
+                    do {
+                        String name = nextName();
+                        map.put(name, nextValue());
+                    } while (hasNext());
+                }
+                return map;
+            }
+            case '[': {
+                List<Object> list = Lists.newArrayList();
+                if (beginArray()) {
+                    do {
+                        list.add(nextValue());
+                    } while (hasNext());
+                }
+                return list;
+            }
+            case '"':
+                return readQuoted();
+            case 'n':
+                expectLiteral("null");
+                return null;
+            case 't':
+            case 'f':
+                return Boolean.valueOf(nextScalar());
+            default: {
+                String number = nextScalar();
+                if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0) {
+                    return Double.valueOf(number);
+                }
+                return number.length() < 19 ? (Object) Long.valueOf(number) : new BigDecimal(number);
+            }
+        }
+    }
+
+    /**
+     * 跳过一个值，用于忽略目标类型中不存在的属性
+     */
+    public void skipValue() {
+        char c = peek();
+        if (c == '{') {
+            if (beginObject()) {
+                do {
+                    nextName();
+                    skipValue();
+                } while (hasNext());
+            }
+        } else if (c == '[') {
+            if (beginArray()) {
+                do {
+                    skipValue();
+                } while (hasNext());
+            }
+        } else if (!nextNull()) {
+            nextScalar();
+        }
+    }
+
+    /**
+     * 确认值之后只剩空白
+     */
+    public void end() {
+        if (peek() != 0) {
+            throw error("多余的内容");
+        }
+    }
+
+    JsonException error(String message) {
+        return new JsonException("json格式错误，位置" + position + ":" + message);
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("需要" + c);
+        }
+        position++;
+    }
+
+    private void expectLiteral(String literal) {
+        if (!text.startsWith(literal, position)) {
+            throw error("需要" + literal);
+        }
+        position += literal.length();
+    }
+
+    private String readNumber() {
+        int start = position;
+        if (text.charAt(position) == '-') {
+            position++;
+        }
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c >= '0' && c <= '9' || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                position++;
+            } else {
+                break;
+            }
+        }
+        if (position == start || position == start + 1 && text.charAt(start) == '-') {
+            throw error("数字格式错误");
+        }
+        return text.substring(start, position);
+    }
+
+    /**
+     * 读取字符串，没有转义字符时直接截取，不逐个复制
+     *
+     * @return
+     */
+    private String readQuoted() {
+        int start = ++position;
+        int length = text.length();
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                position = i + 1;
+                return text.substring(start, i);
+            }
+            if (c == '\\') {
+                return readEscaped(start, i);
+            }
+        }
+        throw error("字符串没有结束");
+    }
+
+    private String readEscaped(int start, int escape) {
+        StringBuilder builder = new StringBuilder(escape - start + 16);
+        builder.append(text, start, escape);
+        int i = escape;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i++);
+            if (c == '"') {
+                position = i;
+                return builder.toString();
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            if (i >= length) {
+                break;
+            }
+            char escaped = text.charAt(i++);
+            switch (escaped) {
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'u':
+                    if (i + 4 > length) {
+                        position = i;
+                        throw error("unicode转义不完整");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(text.substring(i, i + 4), 16));
+                    } catch (NumberFormatException e) {
+                        position = i;
+                        throw error("unicode转义格式错误");
+                    }
+                    i += 4;
+                    break;
+                default:
+                    builder.append(escaped);
+            }
+        }
+        position = i;
+        throw error("字符串没有结束");
+    }
+
+    private void skipWhitespace() {
+        int length = text.length();
+        while (position < length) {
+            char c = text.charAt(position);
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                position++;
+            } else {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.learning.springmvc.json;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 01:00
+ * @description: 某个类型的json序列化器，由JsonMapper按类型生成并缓存，也可以通过JsonMapper.register注册自定义实现
+ */
+@FunctionalInterface
+public interface JsonSerializer {
+
+    /**
+     * 写入非null的值
+     *
+     * @param value
+     * @param output
+     */
+    void write(Object value, JsonOutput output);
+}
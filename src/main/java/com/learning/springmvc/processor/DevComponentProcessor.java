@@ -0,0 +1,389 @@
+package com.learning.springmvc.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-18 15:40
+ * @description: 编译期生成组件定义的注解处理器
+ * 为每个@DevController/@DevService类生成一个ComponentProvider实现类，并把类名写入META-INF/dev-mvc.components索引，
+ * DispatcherServlet启动时读取索引即可完成实例化、依赖注入和HandlerMapping的构建，不再扫描classpath
+ * 处理器需要先于业务代码编译，pom中使用单独的compile-processor执行阶段完成，因此这里不依赖项目中的其他类
+ */
+@SupportedAnnotationTypes("*")
+public class DevComponentProcessor extends AbstractProcessor {
+
+    private static final String CONTROLLER = "com.learning.springmvc.annotation.DevController";
+    private static final String SERVICE = "com.learning.springmvc.annotation.DevService";
+    private static final String AUTOWIRED = "com.learning.springmvc.annotation.DevAutowired";
+    private static final String REQUEST_MAPPING = "com.learning.springmvc.annotation.DevRequestMapping";
+    private static final String SCOPE = "com.learning.springmvc.annotation.DevScope";
+    private static final String LAZY = "com.learning.springmvc.annotation.DevLazy";
+
+    /**
+     * 与DevScope.SINGLETON保持一致
+     */
+    private static final String SINGLETON = "singleton";
+
+    /**
+     * 与ComponentIndex中的常量保持一致
+     */
+    private static final String INDEX_LOCATION = "META-INF/dev-mvc.components";
+    private static final String PROVIDER_SUFFIX = "_DevComponent";
+
+    private static final String CONTEXT_PACKAGE = "com.learning.springmvc.context.";
+
+    /**
+     * 索引中的ComponentProvider类名，增量编译时保留上次生成的内容
+     */
+    private final Set<String> providerNames = new TreeSet<>();
+
+    private boolean indexLoaded;
+
+    private boolean indexChanged;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!indexLoaded) {
+            loadIndex();
+            indexLoaded = true;
+        }
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            processType(type);
+        }
+        if (roundEnv.processingOver() && indexChanged) {
+            writeIndex();
+        }
+        // 不独占任何注解，lombok等其他处理器照常执行
+        return false;
+    }
+
+    private void processType(TypeElement type) {
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            processType(nested);
+        }
+        String providerName = providerName(type);
+        AnnotationMirror component = findAnnotation(type, CONTROLLER);
+        boolean controller = component != null;
+        if (!controller) {
+            component = findAnnotation(type, SERVICE);
+        }
+        if (component == null) {
+            // 重新编译后不再是组件的类，从索引中移除
+            indexChanged |= providerNames.remove(providerName);
+            return;
+        }
+        if (type.getModifiers().contains(Modifier.PRIVATE)
+                || (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC))) {
+            // 生成的provider无法访问这些类，跳过会导致运行时缺少组件，直接使编译失败
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "component class must not be private or a non-static inner class: " + type.getQualifiedName(), type);
+            return;
+        }
+        try {
+            writeProvider(type, providerName, controller, stringValue(component));
+            providerNames.add(providerName);
+            indexChanged = true;
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "failed to generate component provider: " + e.getMessage(), type);
+        }
+    }
+
+    private void writeProvider(TypeElement type, String providerName, boolean controller, String name) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String simpleName = providerName.substring(providerName.lastIndexOf('.') + 1);
+        String canonicalName = type.getQualifiedName().toString();
+
+        List<String> interfaceNames = new ArrayList<>();
+        for (TypeMirror itemInterface : type.getInterfaces()) {
+            interfaceNames.add(literal(className(itemInterface)));
+        }
+
+        List<String> injectionPoints = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            AnnotationMirror autowired = findAnnotation(field, AUTOWIRED);
+            if (autowired == null) {
+                continue;
+            }
+            String beanName = stringValue(autowired).trim();
+            if (beanName.isEmpty()) {
+                beanName = className(field.asType());
+            }
+            injectionPoints.add("new " + CONTEXT_PACKAGE + "InjectionPoint(" + literal(field.getSimpleName().toString()) + ", " + literal(beanName) + ")");
+        }
+
+        String baseUrl = "";
+        List<String> routes = new ArrayList<>();
+        if (controller) {
+            AnnotationMirror typeMapping = findAnnotation(type, REQUEST_MAPPING);
+            if (typeMapping != null) {
+                baseUrl = stringValue(typeMapping);
+            }
+            for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+                AnnotationMirror mapping = findAnnotation(method, REQUEST_MAPPING);
+                if (mapping == null || !method.getModifiers().contains(Modifier.PUBLIC)) {
+                    continue;
+                }
+                List<String> parameterTypes = new ArrayList<>();
+                for (VariableElement parameter : method.getParameters()) {
+                    parameterTypes.add(literal(className(parameter.asType())));
+                }
+                routes.add("new " + CONTEXT_PACKAGE + "RouteDefinition(" + literal(method.getSimpleName().toString())
+                        + ", new String[]{" + String.join(", ", parameterTypes) + "}, " + literal(stringValue(mapping)) + ")");
+            }
+        }
+
+        AnnotationMirror scopeMirror = findAnnotation(type, SCOPE);
+        String scope = scopeMirror == null || stringValue(scopeMirror).isEmpty() ? SINGLETON : stringValue(scopeMirror);
+        AnnotationMirror lazyMirror = findAnnotation(type, LAZY);
+        boolean lazy = lazyMirror != null && !"false".equals(stringValue(lazyMirror));
+
+        String constructor = constructorDefinition(type);
+        // 构造器注入时通过反射调用带参构造器
+        String factory = constructor == null && hasAccessibleConstructor(type) ? canonicalName + "::new" : "null";
+        String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+
+        FileObject sourceFile = processingEnv.getFiler().createSourceFile(providerName, type);
+        try (Writer writer = sourceFile.openWriter()) {
+            writer.write("package " + packageName + ";\n\n");
+            writer.write("/**\n * 由DevComponentProcessor根据" + canonicalName + "生成，请勿手动修改\n */\n");
+            writer.write("public final class " + simpleName + " implements " + CONTEXT_PACKAGE + "ComponentProvider {\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public " + CONTEXT_PACKAGE + "ComponentDefinition getDefinition() {\n");
+            writer.write("        return new " + CONTEXT_PACKAGE + "ComponentDefinition(\n");
+            writer.write("                " + literal(className) + ",\n");
+            writer.write("                " + canonicalName + ".class,\n");
+            writer.write("                " + factory + ",\n");
+            writer.write("                " + controller + ",\n");
+            writer.write("                " + literal(name) + ",\n");
+            writer.write("                " + literal(scope) + ",\n");
+            writer.write("                " + lazy + ",\n");
+            writer.write("                " + list("String", interfaceNames) + ",\n");
+            writer.write("                " + (constructor == null ? "null" : constructor) + ",\n");
+            writer.write("                " + list(CONTEXT_PACKAGE + "InjectionPoint", injectionPoints) + ",\n");
+            writer.write("                " + literal(baseUrl) + ",\n");
+            writer.write("                " + list(CONTEXT_PACKAGE + "RouteDefinition", routes) + ");\n");
+            writer.write("    }\n");
+            writer.write("}\n");
+        }
+    }
+
+    private void loadIndex() {
+        try {
+            FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        providerNames.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 首次编译时索引不存在
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = index.openWriter()) {
+                for (String providerName : providerNames) {
+                    writer.write(providerName);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "failed to write component index: " + e.getMessage());
+        }
+    }
+
+    private String providerName(TypeElement type) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        return (packageName.isEmpty() ? "" : packageName + ".") + simpleName.replace('$', '_') + PROVIDER_SUFFIX;
+    }
+
+    /**
+     * 与ComponentDefinition.fromClass的选择规则一致：优先使用标注了@DevAutowired的构造器，其次是唯一的带参构造器
+     *
+     * @param type
+     * @return 使用无参构造器时返回null
+     */
+    private String constructorDefinition(TypeElement type) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        ExecutableElement selected = null;
+        for (ExecutableElement constructor : constructors) {
+            if (findAnnotation(constructor, AUTOWIRED) != null) {
+                if (selected != null) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "only one constructor can be annotated with @DevAutowired: " + type.getQualifiedName(), constructor);
+                }
+                selected = constructor;
+            }
+        }
+        if (selected == null && constructors.size() == 1 && !constructors.get(0).getParameters().isEmpty()) {
+            selected = constructors.get(0);
+        }
+        if (selected == null || selected.getParameters().isEmpty()) {
+            return null;
+        }
+        List<String> parameterTypes = new ArrayList<>();
+        List<String> beanNames = new ArrayList<>();
+        for (VariableElement parameter : selected.getParameters()) {
+            String parameterType = className(parameter.asType());
+            parameterTypes.add(literal(parameterType));
+            AnnotationMirror autowired = findAnnotation(parameter, AUTOWIRED);
+            String beanName = autowired == null ? "" : stringValue(autowired).trim();
+            beanNames.add(literal(beanName.isEmpty() ? parameterType : beanName));
+        }
+        return "new " + CONTEXT_PACKAGE + "ConstructorDefinition(new String[]{" + String.join(", ", parameterTypes)
+                + "}, new String[]{" + String.join(", ", beanNames) + "})";
+    }
+
+    private boolean hasAccessibleConstructor(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || type.getKind() != ElementKind.CLASS) {
+            return false;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static String stringValue(AnnotationMirror mirror) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value")) {
+                return String.valueOf(entry.getValue().getValue());
+            }
+        }
+        return "";
+    }
+
+    /**
+     * 生成与Class.getName()一致的类型名称
+     *
+     * @param type
+     * @return
+     */
+    private String className(TypeMirror type) {
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+        if (erasure.getKind().isPrimitive()) {
+            return erasure.getKind().name().toLowerCase();
+        }
+        if (erasure.getKind() == TypeKind.ARRAY) {
+            return "[" + descriptor(((ArrayType) erasure).getComponentType());
+        }
+        return processingEnv.getElementUtils().getBinaryName((TypeElement) processingEnv.getTypeUtils().asElement(erasure)).toString();
+    }
+
+    private String descriptor(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case CHAR:
+                return "C";
+            case SHORT:
+                return "S";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case FLOAT:
+                return "F";
+            case DOUBLE:
+                return "D";
+            case ARRAY:
+                return "[" + descriptor(((ArrayType) type).getComponentType());
+            default:
+                return "L" + className(type) + ";";
+        }
+    }
+
+    private static String list(String elementType, List<String> items) {
+        if (items.isEmpty()) {
+            return "java.util.Collections.<" + elementType + ">emptyList()";
+        }
+        return "java.util.Arrays.<" + elementType + ">asList(" + String.join(", ", items) + ")";
+    }
+
+    private static String literal(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
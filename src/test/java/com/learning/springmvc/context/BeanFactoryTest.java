@@ -0,0 +1,227 @@
+package com.learning.springmvc.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.learning.springmvc.annotation.DevAutowired;
+import com.learning.springmvc.annotation.DevController;
+import com.learning.springmvc.annotation.DevLazy;
+import com.learning.springmvc.annotation.DevScope;
+import com.learning.springmvc.annotation.DevService;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 06:15
+ * @description: 容器的依赖校验、循环依赖检测、延迟加载和prototype作用域
+ */
+public class BeanFactoryTest {
+
+    private final BeanFactory beanFactory = new BeanFactory(BeanFactoryTest.class.getClassLoader());
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @After
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void constructorCycleIsRejectedWithPath() {
+        register(CycleA.class, CycleB.class);
+
+        try {
+            beanFactory.preInstantiateSingletons(pool);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("存在循环依赖:cycleA -> cycleB -> cycleA", e.getMessage());
+        }
+    }
+
+    @Test
+    public void prototypeFieldCycleIsRejected() {
+        register(PrototypeA.class, PrototypeB.class);
+
+        try {
+            beanFactory.preInstantiateSingletons(pool);
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().startsWith("存在循环依赖:"));
+        }
+    }
+
+    @Test
+    public void singletonFieldCycleIsResolved() {
+        register(FieldA.class, FieldB.class);
+        beanFactory.preInstantiateSingletons(pool);
+
+        FieldA a = (FieldA) beanFactory.getBean(FieldA.class.getName());
+        FieldB b = (FieldB) beanFactory.getBean("fieldB");
+
+        assertSame(b, a.b);
+        assertSame(a, b.a);
+    }
+
+    @Test
+    public void constructorDependencyIsCreatedFirst() {
+        register(Consumer.class, Counter.class);
+        beanFactory.preInstantiateSingletons(pool);
+
+        Consumer consumer = (Consumer) beanFactory.getBean("consumer");
+
+        assertSame(beanFactory.getBean("counter"), consumer.counter);
+        assertEquals(2, beanFactory.getSingletonCount());
+    }
+
+    @Test
+    public void lazySingletonIsCreatedOnFirstUse() {
+        int before = LazyService.CREATED.get();
+        register(LazyService.class, Counter.class);
+        beanFactory.preInstantiateSingletons(pool);
+
+        assertEquals(1, beanFactory.getSingletonCount());
+        assertEquals(before, LazyService.CREATED.get());
+
+        Object lazy = beanFactory.getBean("lazyService");
+
+        assertSame(lazy, beanFactory.getBean(LazyService.class.getName()));
+        assertEquals(before + 1, LazyService.CREATED.get());
+        assertEquals(2, beanFactory.getSingletonCount());
+    }
+
+    @Test
+    public void prototypeIsCreatedPerLookupAndInjection() {
+        register(PrototypeService.class, PrototypeHolder.class, Counter.class);
+        beanFactory.preInstantiateSingletons(pool);
+
+        PrototypeService first = (PrototypeService) beanFactory.getBean("prototypeService");
+        PrototypeService second = (PrototypeService) beanFactory.getBean("prototypeService");
+        PrototypeHolder holder = (PrototypeHolder) beanFactory.getBean("prototypeHolder");
+
+        assertNotSame(first, second);
+        assertNotSame(first, holder.service);
+        assertSame(first.counter, second.counter);
+        assertSame(beanFactory.getBean("counter"), holder.service.counter);
+        assertEquals(2, beanFactory.getSingletonCount());
+    }
+
+    @Test
+    public void missingDependencyNamesTheBean() {
+        register(Consumer.class);
+
+        try {
+            beanFactory.preInstantiateSingletons(pool);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("bean consumer的依赖无法注入:不存在的bean:" + Counter.class.getName(), e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void prototypeControllerIsRejected() {
+        register(PrototypeController.class);
+    }
+
+    private void register(Class<?>... classes) {
+        for (Class<?> clazz : classes) {
+            beanFactory.register(ComponentDefinition.fromClass(clazz));
+        }
+    }
+
+    @DevService
+    public static class CycleA {
+
+        public CycleA(CycleB b) {
+        }
+    }
+
+    @DevService
+    public static class CycleB {
+
+        public CycleB(CycleA a) {
+        }
+    }
+
+    @DevService
+    @DevScope(DevScope.PROTOTYPE)
+    public static class PrototypeA {
+
+        @DevAutowired
+        private PrototypeB b;
+    }
+
+    @DevService
+    @DevScope(DevScope.PROTOTYPE)
+    public static class PrototypeB {
+
+        @DevAutowired
+        private PrototypeA a;
+    }
+
+    @DevService
+    public static class FieldA {
+
+        @DevAutowired
+        private FieldB b;
+    }
+
+    @DevService
+    public static class FieldB {
+
+        @DevAutowired
+        private FieldA a;
+    }
+
+    @DevService
+    public static class Counter {
+    }
+
+    @DevService
+    public static class Consumer {
+
+        private final Counter counter;
+
+        public Consumer(Counter counter) {
+            this.counter = counter;
+        }
+    }
+
+    @DevService
+    @DevLazy
+    public static class LazyService {
+
+        private static final AtomicInteger CREATED = new AtomicInteger();
+
+        public LazyService() {
+            CREATED.incrementAndGet();
+        }
+    }
+
+    @DevService
+    @DevScope(DevScope.PROTOTYPE)
+    public static class PrototypeService {
+
+        @DevAutowired
+        private Counter counter;
+    }
+
+    @DevService
+    public static class PrototypeHolder {
+
+        @DevAutowired
+        private PrototypeService service;
+    }
+
+    @DevController
+    @DevScope(DevScope.PROTOTYPE)
+    public static class PrototypeController {
+    }
+}
@@ -0,0 +1,102 @@
+package com.learning.springmvc.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 06:30
+ * @description: 启动快照的写入和读取，长度字段损坏时按不可读的快照忽略
+ */
+public class StartupSnapshotTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private StartupSnapshot snapshot;
+
+    @Before
+    public void setUp() throws IOException {
+        snapshot = new StartupSnapshot(folder.newFolder("snapshot").toPath(), "com.learning.springmvc.context",
+                StartupSnapshotTest.class.getClassLoader());
+        snapshot.save(Lists.newArrayList(ComponentDefinition.fromClass(BeanFactoryTest.Consumer.class),
+                ComponentDefinition.fromClass(BeanFactoryTest.Counter.class)));
+    }
+
+    @Test
+    public void definitionsRoundTrip() {
+        List<ComponentDefinition> definitions = snapshot.load();
+
+        assertEquals(2, definitions.size());
+        assertEquals(BeanFactoryTest.Consumer.class.getName(), definitions.get(0).getClassName());
+        assertEquals(BeanFactoryTest.Counter.class.getName(), definitions.get(0).getConstructor().getBeanNames()[0]);
+        assertEquals("singleton", definitions.get(1).getScope());
+    }
+
+    @Test
+    public void negativeLengthIsIgnored() throws IOException {
+        // 第一个组件类名的长度
+        corrupt(firstDefinitionOffset() + 4, -1);
+
+        assertNull(snapshot.load());
+    }
+
+    @Test
+    public void hugeLengthIsIgnored() throws IOException {
+        corrupt(firstDefinitionOffset() + 4, Integer.MAX_VALUE);
+
+        assertNull(snapshot.load());
+    }
+
+    @Test
+    public void hugeCountIsIgnored() throws IOException {
+        // 组件个数
+        corrupt(firstDefinitionOffset(), Integer.MAX_VALUE);
+
+        assertNull(snapshot.load());
+    }
+
+    @Test
+    public void corruptFingerprintLengthIsIgnored() throws IOException {
+        corrupt(8, Integer.MIN_VALUE);
+
+        assertNull(snapshot.load());
+    }
+
+    /**
+     * 魔数、版本号和指纹之后是组件个数
+     *
+     * @return
+     */
+    private int firstDefinitionOffset() throws IOException {
+        return 12 + ByteBuffer.wrap(Files.readAllBytes(snapshotFile())).getInt(8);
+    }
+
+    private void corrupt(int offset, int value) throws IOException {
+        Path file = snapshotFile();
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(offset, value);
+        Files.write(file, bytes);
+    }
+
+    private Path snapshotFile() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder.getRoot().toPath().resolve("snapshot"), "*.snapshot")) {
+            return Iterables.getOnlyElement(files);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.learning.springmvc.convert;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 05:55
+ * @description: 参数转换器对数组、集合、逗号拆分以及缺失值和转换失败的处理
+ */
+public class ConverterRegistryTest {
+
+    private final ConverterRegistry converterRegistry = new ConverterRegistry();
+
+    @Test
+    public void primitiveArrayFromMultipleValues() {
+        ParameterConverter converter = compile(int[].class, "ids");
+
+        assertArrayEquals(new int[]{1, 2, 3}, (int[]) converter.convert(new String[]{"1", " 2", "3 "}));
+    }
+
+    @Test
+    public void singleValueIsSplitByComma() {
+        assertArrayEquals(new long[]{1L, 2L, 3L}, (long[]) compile(long[].class, "ids").convert(new String[]{"1, 2,3"}));
+        assertArrayEquals(new Integer[]{1, 2}, (Integer[]) compile(Integer[].class, "ids").convert(new String[]{"1,2"}));
+    }
+
+    @Test
+    public void multipleValuesAreNotSplit() {
+        String[] values = (String[]) compile(String[].class, "names").convert(new String[]{"a,b", "c"});
+
+        assertArrayEquals(new String[]{"a,b", "c"}, values);
+    }
+
+    @Test
+    public void charArrayItemsAreTrimmed() {
+        assertArrayEquals(new char[]{'a', 'b'}, (char[]) compile(char[].class, "flags").convert(new String[]{" a, b"}));
+        assertEquals('a', compile(char.class, "flag").convert(new String[]{" a"}));
+    }
+
+    @Test
+    public void booleanArrayAcceptsAliases() {
+        boolean[] flags = (boolean[]) compile(boolean[].class, "flags").convert(new String[]{"yes,off,1"});
+
+        assertEquals("[true, false, true]", Arrays.toString(flags));
+    }
+
+    @Test
+    public void collectionElementTypeComesFromGenericType() throws Exception {
+        Method method = ConverterRegistryTest.class.getDeclaredMethod("handler", List.class, Set.class);
+        Type[] types = method.getGenericParameterTypes();
+
+        Object ids = converterRegistry.compile(List.class, types[0], "ids").convert(new String[]{"3,1,3"});
+        Object units = converterRegistry.compile(Set.class, types[1], "units").convert(new String[]{"SECONDS", "DAYS", "SECONDS"});
+
+        assertEquals(Lists.newArrayList(3L, 1L, 3L), ids);
+        assertEquals(Sets.newLinkedHashSet(Arrays.asList(TimeUnit.SECONDS, TimeUnit.DAYS)), units);
+    }
+
+    @Test
+    public void stringJoinsMultipleValues() {
+        ParameterConverter converter = compile(String.class, "name");
+
+        assertEquals("a,b", converter.convert(new String[]{"a", "b"}));
+        assertEquals(" a ", converter.convert(new String[]{" a "}));
+        assertNull(converter.convert(null));
+    }
+
+    @Test
+    public void missingValues() {
+        assertNull(compile(Integer.class, "page").convert(null));
+        assertNull(compile(Integer.class, "page").convert(new String[]{" "}));
+        assertNull(compile(int[].class, "ids").convert(null));
+        try {
+            compile(int.class, "page").convert(null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("page"));
+        }
+    }
+
+    @Test
+    public void conversionFailureNamesTheParameter() {
+        try {
+            compile(long.class, "id").convert(new String[]{"abc"});
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("参数id转换失败:abc", e.getMessage());
+        }
+        try {
+            compile(int[].class, "ids").convert(new String[]{"1,x"});
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("参数ids转换失败"));
+        }
+    }
+
+    @Test
+    public void registeredConverterOverridesBuiltIn() {
+        converterRegistry.register(new Converter<Integer>() {
+            @Override
+            public Integer convert(String source) {
+                return source.length();
+            }
+        });
+
+        assertEquals(3, compile(Integer.class, "size").convert(new String[]{"abc"}));
+    }
+
+    private ParameterConverter compile(Class<?> type, String name) {
+        return converterRegistry.compile(type, type, name);
+    }
+
+    @SuppressWarnings("unused")
+    private void handler(List<Long> ids, Set<TimeUnit> units) {
+    }
+}
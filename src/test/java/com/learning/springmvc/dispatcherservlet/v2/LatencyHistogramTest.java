@@ -0,0 +1,103 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 06:05
+ * @description: 延迟直方图的分桶计算与分位数
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void smallValuesHaveExactBuckets() {
+        for (long value = 0; value < 16; value++) {
+            assertEquals(value, LatencyHistogram.indexOf(value));
+            assertEquals(value, LatencyHistogram.upperBound((int) value));
+        }
+    }
+
+    @Test
+    public void bucketBoundaries() {
+        assertEquals(16, LatencyHistogram.indexOf(16));
+        assertEquals(16, LatencyHistogram.indexOf(17));
+        assertEquals(17, LatencyHistogram.indexOf(18));
+        assertEquals(17, LatencyHistogram.upperBound(16));
+        assertEquals(19, LatencyHistogram.upperBound(17));
+        assertEquals(1023, LatencyHistogram.upperBound(LatencyHistogram.indexOf(1023)));
+        assertEquals(1151, LatencyHistogram.upperBound(LatencyHistogram.indexOf(1024)));
+    }
+
+    @Test
+    public void eachValueFallsInsideItsBucketWithinRelativeError() {
+        // 固定种子，各数量级的值都能覆盖到
+        Random random = new Random(17);
+        for (int i = 0; i < 100000; i++) {
+            assertBucket((random.nextLong() >>> 1) >>> random.nextInt(63));
+        }
+        for (int bit = 0; bit < 63; bit++) {
+            assertBucket((1L << bit) - 1);
+            assertBucket(1L << bit);
+            assertBucket((1L << bit) + 1);
+        }
+        assertBucket(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void indexesAreMonotonicAndFitTheCounts() {
+        int previous = 0;
+        for (long value = 0; value < 1 << 16; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index == previous || index == previous + 1);
+            previous = index;
+        }
+        assertEquals(new LatencyHistogram().snapshot().length - 1, LatencyHistogram.indexOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void quantilesReturnBucketUpperBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value * 1000);
+        }
+        long[] snapshot = histogram.snapshot();
+        long total = LatencyHistogram.total(snapshot);
+
+        assertEquals(100, total);
+        assertEquals(5050 * 1000, histogram.getSum());
+        assertEquals(LatencyHistogram.upperBound(LatencyHistogram.indexOf(1000)), LatencyHistogram.valueAtQuantile(snapshot, total, 0));
+        assertEquals(LatencyHistogram.upperBound(LatencyHistogram.indexOf(50000)), LatencyHistogram.valueAtQuantile(snapshot, total, 0.5));
+        assertEquals(LatencyHistogram.upperBound(LatencyHistogram.indexOf(99000)), LatencyHistogram.valueAtQuantile(snapshot, total, 0.99));
+        assertEquals(LatencyHistogram.upperBound(LatencyHistogram.indexOf(100000)), LatencyHistogram.valueAtQuantile(snapshot, total, 1));
+    }
+
+    @Test
+    public void emptyAndNegativeRecords() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, LatencyHistogram.valueAtQuantile(histogram.snapshot(), 0, 0.99));
+        histogram.record(-5);
+        assertEquals(1, histogram.snapshot()[0]);
+        assertEquals(0, histogram.getSum());
+    }
+
+    /**
+     * 值不超过所在桶的上界，且大于前一个桶的上界，上界与值的相对误差不超过12.5%
+     *
+     * @param value
+     */
+    private static void assertBucket(long value) {
+        int index = LatencyHistogram.indexOf(value);
+        long upperBound = LatencyHistogram.upperBound(index);
+        assertTrue(value + " > " + upperBound, value <= upperBound);
+        if (index > 0) {
+            assertTrue(value + " <= " + LatencyHistogram.upperBound(index - 1), value > LatencyHistogram.upperBound(index - 1));
+        }
+        assertTrue(value + " -> " + upperBound, (double) (upperBound - value) <= value * 0.125D);
+    }
+}
@@ -0,0 +1,120 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 06:25
+ * @description: offload执行器的排队、执行、拒绝计数，以及虚拟线程不可用时退化为线程池
+ */
+public class OffloadExecutorTest {
+
+    private OffloadExecutor executor;
+
+    @After
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void fullPoolRejectsAndCounts() throws Exception {
+        executor = OffloadExecutor.create(OffloadExecutor.MODE_POOL, 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        executor.execute(blocking);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(blocking);
+        try {
+            executor.execute(blocking);
+            fail();
+        } catch (RejectedExecutionException e) {
+            // 一个线程在执行，一个任务在排队，第三个被拒绝
+        }
+
+        assertEquals(1, executor.getActiveCount());
+        assertEquals(1, executor.getQueueDepth());
+        assertEquals(1, executor.getRejectedCount());
+
+        release.countDown();
+        awaitCompleted(2);
+
+        assertEquals(0, executor.getActiveCount());
+        assertEquals(0, executor.getQueueDepth());
+        assertEquals(1, executor.getRejectedCount());
+    }
+
+    @Test
+    public void shutdownExecutorRejects() {
+        executor = OffloadExecutor.create(OffloadExecutor.MODE_POOL, 1, 1);
+        executor.shutdown();
+
+        try {
+            executor.execute(() -> {
+            });
+            fail();
+        } catch (RejectedExecutionException e) {
+            assertEquals(1, executor.getRejectedCount());
+            assertEquals(0, executor.getQueueDepth());
+        }
+    }
+
+    @Test
+    public void virtualModeFallsBackToPoolWithoutVirtualThreads() throws Exception {
+        executor = OffloadExecutor.create(OffloadExecutor.MODE_VIRTUAL, 1, 1);
+
+        assertEquals(virtualThreadsAvailable() ? OffloadExecutor.MODE_VIRTUAL : OffloadExecutor.MODE_POOL, executor.getMode());
+
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        awaitCompleted(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownModeIsRejected() {
+        OffloadExecutor.create("fork-join", 1, 1);
+    }
+
+    private static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 完成数在任务返回后才累加，等待计数达到预期
+     *
+     * @param expected
+     */
+    private void awaitCompleted(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getCompletedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, executor.getCompletedCount());
+    }
+}
@@ -0,0 +1,81 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 05:50
+ * @description: url模板的编译、变量提取和百分号解码
+ */
+public class PathTemplateTest {
+
+    @Test
+    public void extractsVariablesByIndex() {
+        PathTemplate template = PathTemplate.compile("/users/{id}/orders/{orderId}");
+
+        assertEquals(0, template.indexOf("id"));
+        assertEquals(1, template.indexOf("orderId"));
+        assertEquals(-1, template.indexOf("name"));
+        assertArrayEquals(new String[]{"7", "42"}, template.extract("/users/7/orders/42"));
+    }
+
+    @Test
+    public void extractsLastSegmentWithoutTrailingSlash() {
+        PathTemplate template = PathTemplate.compile("/users/{id}");
+
+        assertArrayEquals(new String[]{"abc"}, template.extract("/users/abc"));
+    }
+
+    @Test
+    public void decodesPercentEncodedSegments() {
+        PathTemplate template = PathTemplate.compile("/files/{name}");
+
+        assertArrayEquals(new String[]{"a b"}, template.extract("/files/a%20b"));
+        assertArrayEquals(new String[]{"中文"}, template.extract("/files/%E4%B8%AD%E6%96%87"));
+        assertArrayEquals(new String[]{"a/b"}, template.extract("/files/a%2Fb"));
+    }
+
+    @Test
+    public void plusIsNotDecodedAsSpace() {
+        PathTemplate template = PathTemplate.compile("/files/{name}");
+
+        assertArrayEquals(new String[]{"a+b"}, template.extract("/files/a+b"));
+        assertArrayEquals(new String[]{"a+b c"}, template.extract("/files/a+b%20c"));
+    }
+
+    @Test
+    public void malformedEncodingIsKeptAsIs() {
+        PathTemplate template = PathTemplate.compile("/files/{name}");
+
+        assertArrayEquals(new String[]{"100%"}, template.extract("/files/100%"));
+        assertArrayEquals(new String[]{"%zz"}, template.extract("/files/%zz"));
+    }
+
+    @Test
+    public void onlyWholeSegmentVariablesAreTemplates() {
+        assertTrue(PathTemplate.isTemplate("/users/{id}"));
+        assertFalse(PathTemplate.isTemplate("/users"));
+        assertFalse(PathTemplate.isTemplate("/users/id{id}"));
+        assertFalse(PathTemplate.isTemplate("/users/[0-9]{3}"));
+        assertFalse(PathTemplate.isTemplate("/users/{id}/.*"));
+        assertNull(PathTemplate.compile("/users"));
+    }
+
+    @Test
+    public void shapeIgnoresVariableNames() {
+        assertEquals("/users/{}/tags/{}", PathTemplate.shape("/users/{id}/tags/{index}"));
+        assertEquals(PathTemplate.shape("/users/{id}"), PathTemplate.shape("/users/{userId}"));
+        assertEquals("/users/.*", PathTemplate.shape("/users/.*"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateVariableNameIsRejected() {
+        PathTemplate.compile("/users/{id}/friends/{id}");
+    }
+}
@@ -0,0 +1,98 @@
+package com.learning.springmvc.dispatcherservlet.v2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 05:50
+ * @description: 路由索引的匹配顺序：精确匹配 -> 正则结果缓存 -> url模板 -> 正则
+ */
+public class RouteIndexTest {
+
+    private final RouteIndex<String> routeIndex = new RouteIndex<>(16, false);
+
+    @Test
+    public void exactRouteWinsOverTemplateAndPattern() {
+        routeIndex.register("/users/{id}", "template");
+        routeIndex.register("/users/.*", "pattern");
+        routeIndex.register("/users/new", "exact");
+
+        assertEquals("exact", routeIndex.lookup("/users/new"));
+        assertEquals("template", routeIndex.lookup("/users/1"));
+    }
+
+    @Test
+    public void templateWinsOverPattern() {
+        routeIndex.register("/users/.*", "pattern");
+        routeIndex.register("/users/{id}", "template");
+
+        assertEquals("template", routeIndex.lookup("/users/1"));
+        assertEquals("pattern", routeIndex.lookup("/users/1/orders"));
+    }
+
+    @Test
+    public void literalSegmentWinsOverVariableSegment() {
+        routeIndex.register("/users/{id}/profile", "byId");
+        routeIndex.register("/users/me/{section}", "me");
+
+        assertEquals("me", routeIndex.lookup("/users/me/profile"));
+        assertEquals("byId", routeIndex.lookup("/users/1/profile"));
+    }
+
+    @Test
+    public void variableSegmentDoesNotMatchEmptySegment() {
+        routeIndex.register("/users/{id}", "template");
+
+        assertNull(routeIndex.lookup("/users/"));
+        assertNull(routeIndex.lookup("/users"));
+    }
+
+    @Test
+    public void deeperPatternWinsOverShallowerPattern() {
+        routeIndex.register("/api/.*", "api");
+        routeIndex.register("/api/v1/.*", "v1");
+
+        assertEquals("v1", routeIndex.lookup("/api/v1/users"));
+        assertEquals("api", routeIndex.lookup("/api/v2/users"));
+    }
+
+    @Test
+    public void patternMatchIsCachedButTemplateMatchIsNot() {
+        routeIndex.register("/files/.*", "pattern");
+        routeIndex.register("/users/{id}", "template");
+
+        assertEquals("pattern", routeIndex.lookup("/files/a.txt"));
+        assertEquals(0, routeIndex.cacheStats().hitCount());
+        assertEquals("pattern", routeIndex.lookup("/files/a.txt"));
+        assertEquals(1, routeIndex.cacheStats().hitCount());
+
+        routeIndex.lookup("/users/1");
+        routeIndex.lookup("/users/1");
+        assertEquals(1, routeIndex.cacheStats().hitCount());
+    }
+
+    @Test
+    public void unmatchedUrlReturnsNull() {
+        routeIndex.register("/users", "exact");
+        routeIndex.register("/users/{id}", "template");
+        routeIndex.register("/files/.*", "pattern");
+
+        assertNull(routeIndex.lookup("/orders/1"));
+        assertNull(routeIndex.lookup("orders"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateExactRouteIsRejected() {
+        routeIndex.register("/users", "first");
+        routeIndex.register("/users", "second");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void templatesWithDifferentVariableNamesAreDuplicates() {
+        routeIndex.register("/users/{id}", "first");
+        routeIndex.register("/users/{userId}", "second");
+    }
+}
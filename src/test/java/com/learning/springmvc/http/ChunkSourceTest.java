@@ -0,0 +1,73 @@
+package com.learning.springmvc.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 06:10
+ * @description: handler返回值到ChunkSource的适配
+ */
+public class ChunkSourceTest {
+
+    @Test
+    public void streamingTypes() {
+        assertTrue(ChunkSource.isStreaming(Stream.class));
+        assertTrue(ChunkSource.isStreaming(Iterator.class));
+        assertTrue(ChunkSource.isStreaming(ChunkSource.class));
+        assertFalse(ChunkSource.isStreaming(List.class));
+        assertFalse(ChunkSource.isStreaming(Object.class));
+        assertTrue(ChunkSource.isStreaming((Object) Stream.empty()));
+        assertFalse(ChunkSource.isStreaming((Object) Lists.newArrayList()));
+    }
+
+    @Test
+    public void streamIsPulledLazilyAndClosed() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        List<Integer> pulled = Lists.newArrayList();
+        Stream<Integer> stream = Stream.of(1, 2, 3).peek(pulled::add).onClose(() -> closed.set(true));
+
+        ChunkSource source = ChunkSource.from(stream);
+
+        assertTrue(pulled.isEmpty());
+        assertEquals(1, source.next());
+        assertEquals(Lists.newArrayList(1), pulled);
+        source.close();
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void nullElementsAreSkipped() throws Exception {
+        ChunkSource source = ChunkSource.from(Arrays.asList("a", null, null, "b", null).iterator());
+
+        assertEquals("a", source.next());
+        assertEquals("b", source.next());
+        assertNull(source.next());
+        assertNull(source.next());
+    }
+
+    @Test
+    public void chunkSourceIsReturnedAsIs() {
+        ChunkSource source = () -> null;
+
+        assertSame(source, ChunkSource.from(source));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedTypeIsRejected() {
+        ChunkSource.from(Lists.newArrayList("a"));
+    }
+}
@@ -0,0 +1,205 @@
+package com.learning.springmvc.json;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 06:00
+ * @description: JsonMapper的序列化与反序列化往返，以及格式错误的输入
+ */
+public class JsonMapperTest {
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+
+    private List<Item> items;
+
+    private Map<String, List<Long>> groups;
+
+    @Test
+    public void writesScalarsAndCollections() {
+        Map<String, Object> value = Maps.newLinkedHashMap();
+        value.put("name", "a\"b\\c\n");
+        value.put("count", 3);
+        value.put("ratio", 0.5D);
+        value.put("ok", true);
+        value.put("none", null);
+        value.put("unit", TimeUnit.SECONDS);
+        value.put("ids", new int[]{1, 2});
+        value.put("tags", Lists.newArrayList("x", "y"));
+
+        assertEquals("{\"name\":\"a\\\"b\\\\c\\n\",\"count\":3,\"ratio\":0.5,\"ok\":true,\"none\":null,\"unit\":\"SECONDS\","
+                + "\"ids\":[1,2],\"tags\":[\"x\",\"y\"]}", jsonMapper.writeValueAsString(value));
+    }
+
+    @Test
+    public void beanRoundTrip() {
+        Item item = new Item();
+        item.setId(7L);
+        item.setName("中文 \"quoted\"");
+        item.setActive(true);
+        item.setUnit(TimeUnit.MILLISECONDS);
+        item.setTags(Lists.newArrayList("a", "b"));
+        item.setCounts(ImmutableMap.of("x", 1, "y", 2));
+        item.setData(new byte[]{1, 2, 3});
+
+        Item copy = (Item) jsonMapper.read(jsonMapper.writeValueAsString(item), Item.class);
+
+        assertEquals(7L, copy.getId());
+        assertEquals(item.getName(), copy.getName());
+        assertTrue(copy.isActive());
+        assertEquals(TimeUnit.MILLISECONDS, copy.getUnit());
+        assertEquals(item.getTags(), copy.getTags());
+        assertEquals(item.getCounts(), copy.getCounts());
+        assertArrayEquals(item.getData(), copy.getData());
+        assertNull(copy.getScore());
+    }
+
+    @Test
+    public void genericCollectionsRoundTrip() throws Exception {
+        Type listType = JsonMapperTest.class.getDeclaredField("items").getGenericType();
+        Type mapType = JsonMapperTest.class.getDeclaredField("groups").getGenericType();
+
+        @SuppressWarnings("unchecked")
+        List<Item> list = (List<Item>) jsonMapper.read("[{\"id\":1},{\"id\":2,\"name\":\"b\"}]", listType);
+        @SuppressWarnings("unchecked")
+        Map<String, List<Long>> map = (Map<String, List<Long>>) jsonMapper.read("{\"a\":[1,2],\"b\":[]}", mapType);
+
+        assertEquals(2, list.size());
+        assertEquals(2L, list.get(1).getId());
+        assertEquals("b", list.get(1).getName());
+        assertEquals(Lists.newArrayList(1L, 2L), map.get("a"));
+        assertTrue(map.get("b").isEmpty());
+        assertEquals("{\"a\":[1,2],\"b\":[]}", jsonMapper.writeValueAsString(map));
+    }
+
+    @Test
+    public void unknownPropertiesAreSkipped() {
+        Item item = (Item) jsonMapper.read("{\"id\":3,\"extra\":{\"nested\":[1,{\"x\":null}]},\"active\":false}", Item.class);
+
+        assertEquals(3L, item.getId());
+        assertFalse(item.isActive());
+    }
+
+    @Test
+    public void nullDocumentReadsAsNull() {
+        assertNull(jsonMapper.read(" null ", Item.class));
+    }
+
+    @Test(expected = JsonException.class)
+    public void malformedObjectIsRejected() {
+        jsonMapper.read("{bad", Item.class);
+    }
+
+    @Test(expected = JsonException.class)
+    public void trailingContentIsRejected() {
+        jsonMapper.read("{\"id\":1} {}", Item.class);
+    }
+
+    @Test(expected = JsonException.class)
+    public void unterminatedStringIsRejected() {
+        jsonMapper.read("{\"name\":\"abc}", Item.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void typeMismatchIsRejected() {
+        jsonMapper.read("{\"id\":\"abc\"}", Item.class);
+    }
+
+    public static class Item {
+
+        private long id;
+
+        private String name;
+
+        private boolean active;
+
+        private TimeUnit unit;
+
+        private List<String> tags;
+
+        private Map<String, Integer> counts;
+
+        private byte[] data;
+
+        private Double score;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public TimeUnit getUnit() {
+            return unit;
+        }
+
+        public void setUnit(TimeUnit unit) {
+            this.unit = unit;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public Map<String, Integer> getCounts() {
+            return counts;
+        }
+
+        public void setCounts(Map<String, Integer> counts) {
+            this.counts = counts;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public void setData(byte[] data) {
+            this.data = data;
+        }
+
+        public Double getScore() {
+            return score;
+        }
+
+        public void setScore(Double score) {
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.learning.springmvc.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 06:00
+ * @description: JsonParser按json本身的类型读取值、转义字符的处理以及错误位置
+ */
+public class JsonParserTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readsValuesByJsonType() {
+        JsonParser parser = new JsonParser(" {\"a\":1,\"b\":[true,null,1.5,\"s\"],\"c\":{},\"d\":12345678901234567890} ");
+
+        Map<String, Object> value = (Map<String, Object>) parser.nextValue();
+        parser.end();
+
+        assertEquals(1L, value.get("a"));
+        assertEquals(Lists.newArrayList(true, null, 1.5D, "s"), value.get("b"));
+        assertTrue(((Map<String, Object>) value.get("c")).isEmpty());
+        assertEquals(new BigDecimal("12345678901234567890"), value.get("d"));
+    }
+
+    @Test
+    public void decodesEscapes() {
+        JsonParser parser = new JsonParser("\"a\\\"b\\\\c\\/d\\n\\t\\u4e2d\"");
+
+        assertEquals("a\"b\\c/d\n\t中", parser.nextValue());
+    }
+
+    @Test
+    public void emptyContainers() {
+        @SuppressWarnings("unchecked")
+        List<Object> list = (List<Object>) new JsonParser("[ ]").nextValue();
+
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void skipValueSkipsNestedContent() {
+        JsonParser parser = new JsonParser("{\"skip\":{\"a\":[1,[2,{\"b\":\"}\"}]]},\"keep\":2}");
+
+        assertTrue(parser.beginObject());
+        assertEquals("skip", parser.nextName());
+        parser.skipValue();
+        assertTrue(parser.hasNext());
+        assertEquals("keep", parser.nextName());
+        assertEquals("2", parser.nextScalar());
+    }
+
+    @Test
+    public void errorsReportPosition() {
+        assertMalformed("{\"a\" 1}");
+        assertMalformed("[1,2");
+        assertMalformed("\"abc");
+        assertMalformed("{\"a\":tru}");
+        assertMalformed("1 2");
+    }
+
+    @Test
+    public void nestingDepthIsLimited() {
+        assertMalformed(Strings.repeat("[", 100000));
+        assertMalformed(Strings.repeat("{\"a\":", 100000) + "1" + Strings.repeat("}", 100000));
+
+        String allowed = Strings.repeat("[", JsonParser.MAX_DEPTH) + Strings.repeat("]", JsonParser.MAX_DEPTH);
+        JsonParser parser = new JsonParser(allowed + allowed);
+        parser.nextValue();
+        parser.skipValue();
+        parser.end();
+    }
+
+    @Test(expected = JsonException.class)
+    public void skipValueHonorsDepthLimit() {
+        JsonParser parser = new JsonParser("{\"skip\":" + Strings.repeat("[", 100000) + "}");
+        parser.beginObject();
+        parser.nextName();
+        parser.skipValue();
+    }
+
+    private static void assertMalformed(String json) {
+        try {
+            JsonParser parser = new JsonParser(json);
+            parser.nextValue();
+            parser.end();
+            fail("应拒绝:" + json);
+        } catch (JsonException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("json格式错误，位置"));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.learning.springmvc.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.learning.springmvc.context.ComponentDefinition;
+import com.learning.springmvc.context.ComponentIndex;
+import com.learning.springmvc.context.InjectionPoint;
+import com.learning.springmvc.context.RouteDefinition;
+
+/**
+ * @author: dengxin.chen
+ * @date: 2026-10-19 06:20
+ * @description: 注解处理器生成的组件定义与反射读取的结果一致，增量编译时合并索引，以及无法生成provider的组件类
+ */
+public class DevComponentProcessorTest {
+
+    private static final String REPOSITORY = "package fixture;\n"
+            + "@com.learning.springmvc.annotation.DevService(\"repository\")\n"
+            + "public class Repository implements Runnable {\n"
+            + "    public void run() {\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String WEB = "package fixture;\n"
+            + "import com.learning.springmvc.annotation.*;\n"
+            + "@DevController\n"
+            + "@DevRequestMapping(\"/web\")\n"
+            + "public class Web {\n"
+            + "    private final Repository repository;\n"
+            + "    @DevAutowired(\"repository\")\n"
+            + "    private Runnable task;\n"
+            + "    public Web(Repository repository) {\n"
+            + "        this.repository = repository;\n"
+            + "    }\n"
+            + "    @DevRequestMapping(\"/list\")\n"
+            + "    public String list(int page, String[] tags) {\n"
+            + "        return \"\";\n"
+            + "    }\n"
+            + "    @DevService\n"
+            + "    @DevLazy\n"
+            + "    @DevScope(DevScope.PROTOTYPE)\n"
+            + "    public static class Helper {\n"
+            + "    }\n"
+            + "}\n";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File output;
+
+    @Before
+    public void setUp() throws IOException {
+        output = folder.newFolder("classes");
+    }
+
+    @Test
+    public void generatedDefinitionsMatchReflection() throws Exception {
+        assertTrue(compile("Repository", REPOSITORY, "Web", WEB).isEmpty());
+
+        List<ComponentDefinition> definitions = load();
+
+        assertEquals(3, definitions.size());
+        for (ComponentDefinition generated : definitions) {
+            ComponentDefinition reflected = ComponentDefinition.fromClass(generated.getType(null));
+            assertEquals(describe(reflected), describe(generated));
+        }
+        ComponentDefinition web = find(definitions, "fixture.Web");
+        assertEquals("/web", web.getBaseUrl());
+        assertEquals("[fixture.Repository]", Arrays.toString(web.getConstructor().getBeanNames()));
+        assertTrue(find(definitions, "fixture.Web$Helper").isLazy());
+    }
+
+    @Test
+    public void incrementalCompilationMergesIndex() throws Exception {
+        assertTrue(compile("Repository", REPOSITORY, "Web", WEB).isEmpty());
+        assertTrue(compile("Other", "package fixture;\n@com.learning.springmvc.annotation.DevService\npublic class Other {\n}\n").isEmpty());
+
+        assertEquals(Lists.newArrayList("fixture.Other_DevComponent", "fixture.Repository_DevComponent", "fixture.Web_DevComponent",
+                "fixture.Web_Helper_DevComponent"), readIndex());
+
+        // 去掉注解后重新编译，索引中不再包含该组件
+        assertTrue(compile("Other", "package fixture;\npublic class Other {\n}\n").isEmpty());
+
+        assertFalse(readIndex().contains("fixture.Other_DevComponent"));
+        assertEquals(3, load().size());
+    }
+
+    @Test
+    public void privateNestedComponentFailsCompilation() throws Exception {
+        List<String> errors = compile("Outer", "package fixture;\n"
+                + "public class Outer {\n"
+                + "    @com.learning.springmvc.annotation.DevService\n"
+                + "    private static class Hidden {\n"
+                + "    }\n"
+                + "    @com.learning.springmvc.annotation.DevService\n"
+                + "    public class Inner {\n"
+                + "    }\n"
+                + "}\n");
+
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0), errors.get(0).endsWith("fixture.Outer.Hidden"));
+        assertTrue(errors.get(1), errors.get(1).endsWith("fixture.Outer.Inner"));
+    }
+
+    /**
+     * 把源码编译到output目录，已编译的类也在classpath中，模拟增量编译
+     *
+     * @param nameAndSources 交替给出类名和源码
+     * @return 编译错误
+     */
+    private List<String> compile(String... nameAndSources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("需要在JDK上运行", compiler);
+        File sourceDir = folder.newFolder();
+        List<File> files = Lists.newArrayList();
+        for (int i = 0; i < nameAndSources.length; i += 2) {
+            File file = new File(sourceDir, nameAndSources[i] + ".java");
+            Files.write(file.toPath(), nameAndSources[i + 1].getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        String classpath = new File(ComponentIndex.class.getProtectionDomain().getCodeSource().getLocation().getPath())
+                + File.pathSeparator + output;
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-d", output.getPath(), "-classpath", classpath), null, fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(Collections.singletonList(new DevComponentProcessor()));
+            task.call();
+        }
+        List<String> errors = Lists.newArrayList();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        return errors;
+    }
+
+    private List<String> readIndex() throws IOException {
+        return Files.readAllLines(new File(output, ComponentIndex.INDEX_LOCATION).toPath(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 只读取fixture包下的组件，父加载器中项目自身的索引同时被读取并按包过滤
+     *
+     * @return
+     */
+    private List<ComponentDefinition> load() throws IOException {
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{output.toURI().toURL()}, getClass().getClassLoader());
+        return ComponentIndex.load(classLoader, "fixture");
+    }
+
+    private static ComponentDefinition find(List<ComponentDefinition> definitions, String className) {
+        for (ComponentDefinition definition : definitions) {
+            if (definition.getClassName().equals(className)) {
+                return definition;
+            }
+        }
+        throw new AssertionError("不存在的组件:" + className);
+    }
+
+    private static Map<String, Object> describe(ComponentDefinition definition) {
+        Map<String, Object> description = Maps.newLinkedHashMap();
+        description.put("className", definition.getClassName());
+        description.put("controller", definition.isController());
+        description.put("name", definition.getName());
+        description.put("scope", definition.getScope());
+        description.put("lazy", definition.isLazy());
+        description.put("interfaces", definition.getInterfaceNames());
+        if (definition.getConstructor() != null) {
+            description.put("constructorTypes", Arrays.asList(definition.getConstructor().getParameterTypeNames()));
+            description.put("constructorBeans", Arrays.asList(definition.getConstructor().getBeanNames()));
+        }
+        List<String> injectionPoints = Lists.newArrayList();
+        for (InjectionPoint injectionPoint : definition.getInjectionPoints()) {
+            injectionPoints.add(injectionPoint.getFieldName() + "=" + injectionPoint.getBeanName());
+        }
+        description.put("injectionPoints", injectionPoints);
+        description.put("baseUrl", definition.getBaseUrl());
+        List<String> routes = Lists.newArrayList();
+        for (RouteDefinition route : definition.getRoutes()) {
+            routes.add(route.getMethodName() + Arrays.toString(route.getParameterTypeNames()) + "=" + route.getMapping());
+        }
+        description.put("routes", routes);
+        return description;
+    }
+}